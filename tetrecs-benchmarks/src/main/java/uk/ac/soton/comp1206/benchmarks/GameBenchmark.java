@@ -0,0 +1,65 @@
+package uk.ac.soton.comp1206.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.soton.comp1206.game.ClearRule;
+import uk.ac.soton.comp1206.game.Game;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for playing a piece through the Game, including finding and clearing the lines it completes. Each
+ * invocation plays a horizontal line piece into the gap left in an otherwise full row, clearing that row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    /**
+     * The width and height of the board
+     */
+    @Param({"5", "100", "500"})
+    public int size;
+
+    /**
+     * Which shapes are cleared: full lines only, or 3x3 squares and both diagonals as well
+     */
+    @Param({"lines", "shapes"})
+    public String rules;
+
+    private Game game;
+
+    /**
+     * Create a game which is only ever given line pieces
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        game = new Game(size, size, () -> 0);
+        if (rules.equals("shapes")) {
+            game.addClearRule(ClearRule.square(3));
+            game.addClearRule(ClearRule.diagonal(5));
+            game.addClearRule(ClearRule.antiDiagonal(5));
+        }
+        game.initialiseGame();
+    }
+
+    /**
+     * Fill the middle row apart from a gap of three blocks in the centre
+     */
+    @Setup(Level.Invocation)
+    public void fillRow() {
+        int middle = size / 2;
+        for (int x = 0; x < size; x++) {
+            if (Math.abs(x - middle) > 1) game.getGrid().set(x, middle, 1);
+        }
+        game.rotateCurrentPiece(1);
+    }
+
+    @Benchmark
+    public boolean placeAndClear() {
+        return game.blockClicked(size / 2, size / 2);
+    }
+}
@@ -0,0 +1,89 @@
+package uk.ac.soton.comp1206.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the Grid model: checking placements, finding every legal placement or just whether there is one,
+ * and playing pieces.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+
+    /**
+     * The width and height of the grid
+     */
+    @Param({"5", "100"})
+    public int size;
+
+    private Grid grid;
+    private Grid empty;
+    private Grid checkerboard;
+    private GamePiece[] pieces;
+    private long[] mask;
+    private int index;
+
+    /**
+     * Build a grid with roughly a third of the blocks filled
+     */
+    @Setup
+    public void setup() {
+        var random = new SplittableRandom(1206);
+        grid = new Grid(size, size);
+        empty = new Grid(size, size);
+        checkerboard = new Grid(size, size);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (random.nextInt(3) == 0) grid.set(x, y, 1 + random.nextInt(15));
+                if ((x + y) % 2 == 0) checkerboard.set(x, y, 1);
+            }
+        }
+        pieces = new GamePiece[GamePiece.PIECES * GamePiece.ROTATIONS];
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = GamePiece.createPiece(i / GamePiece.ROTATIONS, i % GamePiece.ROTATIONS);
+        }
+        mask = grid.legalPlacements(pieces[0]);
+    }
+
+    @Benchmark
+    public boolean canPlayPiece() {
+        int i = index++;
+        return grid.canPlayPiece(pieces[i % pieces.length], i % size, (i / size) % size);
+    }
+
+    @Benchmark
+    public int legalPlacements() {
+        return grid.legalPlacements(pieces[index++ % pieces.length], mask);
+    }
+
+    @Benchmark
+    public boolean canPlayAnywhere() {
+        return grid.canPlayAnywhere(pieces[index++ % pieces.length]);
+    }
+
+    /**
+     * Only the single block piece fits a checkerboard, so every other piece has to look at the whole grid
+     */
+    @Benchmark
+    public boolean canPlayAnywhereCheckerboard() {
+        return checkerboard.canPlayAnywhere(pieces[index++ % pieces.length]);
+    }
+
+    @Benchmark
+    public void playAndClear() {
+        GamePiece piece = pieces[index++ % pieces.length];
+        int x = 1 + index % (size - 2);
+        int y = 1 + (index / size) % (size - 2);
+        empty.playPiece(piece, x, y);
+        empty.clearGrid();
+    }
+}
@@ -0,0 +1,6 @@
+module uk.ac.soton.comp1206.core {
+    requires org.apache.logging.log4j;
+    exports uk.ac.soton.comp1206.event;
+    exports uk.ac.soton.comp1206.game;
+    exports uk.ac.soton.comp1206.simulation;
+}
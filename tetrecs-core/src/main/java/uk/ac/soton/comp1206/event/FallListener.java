@@ -0,0 +1,20 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.MoveList;
+
+/**
+ * Listener interface for receiving events when blocks fall after a clear
+ */
+public interface FallListener {
+
+    /**
+     * Implementing classes must define the behavior for handling blocks falling, given every block which fell and
+     * where it ended up. Each block appears once, even if it fell more than once in a chain of clears.
+     *
+     * The game reuses the same MoveList for every fall, so it must not be kept after this call returns;
+     * copy it with {@code new MoveList(moves)} if it is needed later.
+     *
+     * @param moves the blocks which fell
+     */
+    void blocksFell(MoveList moves);
+}
@@ -0,0 +1,16 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.Game;
+
+/**
+ * The Game Stats Listener is used to check when the score, level, lives or multiplier of a game change
+ */
+public interface GameStatsListener {
+
+    /**
+     * Called when any of the score, level, lives or multiplier of a game change
+     *
+     * @param game The game that has changed
+     */
+    void statsChanged(Game game);
+}
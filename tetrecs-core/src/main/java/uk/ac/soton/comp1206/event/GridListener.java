@@ -0,0 +1,21 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.CellSet;
+import uk.ac.soton.comp1206.game.Grid;
+
+/**
+ * Listener interface for receiving changes to the blocks of a Grid
+ */
+public interface GridListener {
+
+    /**
+     * Implementing classes must define the behavior for handling blocks of the grid changing value. Called once for
+     * each change to the grid, or once at the end of a transaction however many blocks it changed.
+     *
+     * The grid reuses the same CellSet each time, so it must not be kept after this call returns.
+     *
+     * @param grid The grid that changed, to read the new values from
+     * @param changedBlocks The blocks that changed
+     */
+    void cellsChanged(Grid grid, CellSet changedBlocks);
+}
@@ -0,0 +1,20 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.CellSet;
+
+/**
+ * Listener interface for receiving game loop events
+ */
+public interface LineClearListener {
+
+    /**
+     * Implementing classes must define the behavior for handling line clear events,
+     * specifying the set of game blocks that are cleared.
+     *
+     * The game reuses the same CellSet for every clear, so it must not be kept after this call returns;
+     * copy it with {@code new CellSet(clearedBlocks)} if it is needed later.
+     *
+     * @param clearedBlocks The set of game blocks that are cleared in the line
+     */
+    void lineClear(CellSet clearedBlocks);
+}
@@ -0,0 +1,15 @@
+package uk.ac.soton.comp1206.event;
+
+import uk.ac.soton.comp1206.game.GameSnapshot;
+
+/**
+ * The Snapshot Listener is used to receive the state of a game each time it changes, as an immutable GameSnapshot
+ */
+public interface SnapshotListener {
+
+    /**
+     * Handle the latest state of the game
+     * @param snapshot the game state
+     */
+    void snapshot(GameSnapshot snapshot);
+}
@@ -0,0 +1,150 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps a saved copy of a game on disk so it can be picked up again if the client stops unexpectedly.
+ *
+ * Saving never blocks the caller: the snapshot is handed to a background thread, and if several are saved before it
+ * gets to them only the latest is written. Each save is written to a temporary file, flushed to disk and then renamed
+ * over the save file, so the save file is always either the old game or the new one and never half written. A
+ * checksum at the end catches anything that went wrong anyway.
+ */
+public class Autosave {
+
+    private static final Logger logger = LogManager.getLogger(Autosave.class);
+
+    /**
+     * The save file
+     */
+    private final Path path;
+
+    /**
+     * The file each save is written to before being renamed over the save file
+     */
+    private final Path temporary;
+
+    /**
+     * Writes saves in the background, one at a time
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The latest snapshot waiting to be written
+     */
+    private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
+
+    /**
+     * Create an autosave which keeps its save in the given file
+     *
+     * @param path the save file
+     */
+    public Autosave(Path path) {
+        this.path = path;
+        this.temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    }
+
+    /**
+     * Save a snapshot in the background
+     *
+     * @param snapshot the game to save
+     */
+    public void save(GameSnapshot snapshot) {
+        //Only start a write if one is not already waiting; that write will pick up this snapshot
+        if (pending.getAndSet(snapshot) == null) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Delete the save in the background, dropping any snapshot waiting to be written
+     */
+    public void clear() {
+        pending.set(null);
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.error("Could not delete the saved game", e);
+            }
+        });
+    }
+
+    /**
+     * Load the saved game, if there is one
+     *
+     * @return the saved game, or null if there is none or it cannot be read
+     */
+    public GameSnapshot load() {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            int length = bytes.length - Long.BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(bytes, 0, Math.max(length, 0));
+            if (length <= 0 || ByteBuffer.wrap(bytes, length, Long.BYTES).getLong() != crc.getValue()) {
+                throw new IOException("Checksum does not match");
+            }
+            GameSnapshot snapshot = GameSnapshot.readFrom(
+                    new DataInputStream(new ByteArrayInputStream(bytes, 0, length)));
+            logger.info("Loaded saved game from {}", path);
+            return snapshot;
+        } catch (IOException e) {
+            logger.error("Could not load the saved game: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write the latest pending snapshot, on the writer thread
+     */
+    private void writePending() {
+        GameSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            snapshot.writeTo(out);
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            out.writeLong(crc.getValue());
+
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.error("Could not save the game", e);
+        }
+    }
+}
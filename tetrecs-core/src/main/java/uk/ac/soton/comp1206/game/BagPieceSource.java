@@ -0,0 +1,61 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * A PieceSource which deals pieces from a shuffled bag holding one of every piece, refilling and reshuffling the bag
+ * when it is empty. Every piece appears exactly once in each run of as many pieces as there are in the bag.
+ */
+public class BagPieceSource extends BufferedPieceSource {
+
+    private final SplittableRandom random;
+
+    /**
+     * The bag of piece numbers
+     */
+    private final int[] bag;
+
+    /**
+     * Number of pieces already dealt from the bag
+     */
+    private int dealt;
+
+    /**
+     * Create a new source of pieces from a shuffled bag of the standard set
+     *
+     * @param seed seed for the shuffles
+     */
+    public BagPieceSource(long seed) {
+        this(seed, GamePiece.PIECES);
+    }
+
+    /**
+     * Create a new source of pieces from a shuffled bag
+     *
+     * @param seed seed for the shuffles
+     * @param pieces the number of pieces in the bag
+     */
+    public BagPieceSource(long seed, int pieces) {
+        this.random = new SplittableRandom(seed);
+        this.bag = new int[checkPieces(pieces)];
+        this.dealt = pieces;
+        for (int piece = 0; piece < bag.length; piece++) {
+            bag[piece] = piece;
+        }
+    }
+
+    @Override
+    protected int generate() {
+        if (dealt == bag.length) {
+            //Fisher-Yates shuffle
+            for (int i = bag.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = bag[i];
+                bag[i] = bag[j];
+                bag[j] = swap;
+            }
+            dealt = 0;
+        }
+        return bag[dealt++];
+    }
+}
@@ -0,0 +1,60 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A PieceSource which generates pieces in batches into a ring buffer of piece numbers, so the cost of generating
+ * pieces is paid a batch at a time and taking a piece is a single array read. Piece numbers are kept in a byte each,
+ * so there can be up to {@link PieceSet#MAX_PIECES} pieces.
+ */
+public abstract class BufferedPieceSource implements PieceSource {
+
+    /**
+     * Number of pieces held in the buffer, a power of two
+     */
+    protected static final int CAPACITY = 256;
+
+    /**
+     * Ring buffer of generated piece numbers
+     */
+    private final byte[] buffer = new byte[CAPACITY];
+
+    /**
+     * Number of pieces taken so far
+     */
+    private long read;
+
+    /**
+     * Number of pieces generated so far
+     */
+    private long written;
+
+    @Override
+    public int next() {
+        if (read == written) {
+            //Refill the whole buffer in one go
+            for (int i = 0; i < CAPACITY; i++) {
+                buffer[(int) (written++ & (CAPACITY - 1))] = (byte) generate();
+            }
+        }
+        return buffer[(int) (read++ & (CAPACITY - 1))] & 0xFF;
+    }
+
+    /**
+     * Check a number of pieces can be kept in the buffer
+     *
+     * @param pieces number of pieces to pick from
+     * @return the number of pieces
+     */
+    protected static int checkPieces(int pieces) {
+        if (pieces <= 0 || pieces > PieceSet.MAX_PIECES) {
+            throw new IllegalArgumentException("Expected between 1 and " + PieceSet.MAX_PIECES + " pieces, not " + pieces);
+        }
+        return pieces;
+    }
+
+    /**
+     * Generate the next piece number in the sequence
+     *
+     * @return piece number
+     */
+    protected abstract int generate();
+}
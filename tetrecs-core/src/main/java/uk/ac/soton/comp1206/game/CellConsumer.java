@@ -0,0 +1,15 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * Receives the cells of a CellSet one at a time, as plain x and y values
+ */
+@FunctionalInterface
+public interface CellConsumer {
+
+    /**
+     * Handle one cell
+     * @param x column
+     * @param y row
+     */
+    void accept(int x, int y);
+}
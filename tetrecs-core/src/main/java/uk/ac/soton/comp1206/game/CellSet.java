@@ -0,0 +1,211 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+
+/**
+ * A set of cells on a grid, held as a bitset with the same layout as the Grid's occupancy: each row is a run of
+ * longs, one bit per column. Adding whole rows and columns, counting and iterating work on the bits directly, so a
+ * CellSet can be filled and read over and over without creating any objects.
+ */
+public class CellSet {
+
+    /**
+     * Number of columns
+     */
+    private final int cols;
+
+    /**
+     * Number of rows
+     */
+    private final int rows;
+
+    /**
+     * Number of longs used for each row
+     */
+    private final int words;
+
+    /**
+     * The cells in the set, row by row
+     */
+    private final long[] bits;
+
+    /**
+     * Create a new, empty CellSet for a grid of the given size
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public CellSet(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.words = (cols + 63) >>> 6;
+        this.bits = new long[words * rows];
+    }
+
+    /**
+     * Create a copy of another CellSet
+     * @param other the set to copy
+     */
+    public CellSet(CellSet other) {
+        this.cols = other.cols;
+        this.rows = other.rows;
+        this.words = other.words;
+        this.bits = other.bits.clone();
+    }
+
+    /**
+     * Get the number of columns
+     * @return columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Add a cell to the set
+     * @param x column
+     * @param y row
+     */
+    public void add(int x, int y) {
+        bits[y * words + (x >>> 6)] |= 1L << x;
+    }
+
+    /**
+     * Remove a cell from the set
+     * @param x column
+     * @param y row
+     */
+    public void remove(int x, int y) {
+        bits[y * words + (x >>> 6)] &= ~(1L << x);
+    }
+
+    /**
+     * Check whether a cell is in the set. Cells outside the grid are never in the set.
+     * @param x column
+     * @param y row
+     * @return true if the cell is in the set
+     */
+    public boolean contains(int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) return false;
+        return (bits[y * words + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Add every cell in a row to the set
+     * @param y row
+     */
+    public void addRow(int y) {
+        int start = y * words;
+        Arrays.fill(bits, start, start + words, -1L);
+        //Keep the bits past the last column clear
+        if ((cols & 63) != 0) bits[start + words - 1] = -1L >>> (64 - (cols & 63));
+    }
+
+    /**
+     * Add every cell in a column to the set
+     * @param x column
+     */
+    public void addColumn(int x) {
+        int word = x >>> 6;
+        long bit = 1L << x;
+        for (int y = 0; y < rows; y++) {
+            bits[y * words + word] |= bit;
+        }
+    }
+
+    /**
+     * Get one word of the set's bits, in the same layout as the Grid's occupancy
+     * @param index index of the word, y * words + x / 64
+     * @return the bits of that word
+     */
+    long getWord(int index) {
+        return bits[index];
+    }
+
+    /**
+     * Remove every cell from the set
+     */
+    public void clear() {
+        Arrays.fill(bits, 0L);
+    }
+
+    /**
+     * Get the number of cells in the set
+     * @return number of cells
+     */
+    public int size() {
+        int size = 0;
+        for (long word : bits) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Check whether the set has no cells
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Pass every cell in the set to the consumer, row by row from the top left
+     * @param consumer receives the x and y of each cell
+     */
+    public void forEach(CellConsumer consumer) {
+        for (int i = 0; i < bits.length; i++) {
+            long word = bits[i];
+            int y = i / words;
+            int base = (i - y * words) << 6;
+            while (word != 0) {
+                consumer.accept(base + Long.numberOfTrailingZeros(word), y);
+                word &= word - 1;
+            }
+        }
+    }
+
+    /**
+     * Find the next cell in the set at or after the given index, where cell (x, y) has index y * cols + x. Cells can
+     * be walked without a consumer with {@code for (int i = set.nextCell(0); i >= 0; i = set.nextCell(i + 1))}.
+     * @param from index to start looking from
+     * @return index of the next cell, or -1 if there are no more
+     */
+    public int nextCell(int from) {
+        if (from < 0) from = 0;
+        int y = from / cols;
+        if (y >= rows) return -1;
+        int x = from - y * cols;
+        int i = y * words + (x >>> 6);
+        long word = bits[i] & (-1L << x);
+        while (true) {
+            if (word != 0) {
+                y = i / words;
+                return y * cols + ((i - y * words) << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++i == bits.length) return -1;
+            word = bits[i];
+        }
+    }
+
+    /**
+     * Return a string representation of this CellSet
+     * @return string representation
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("CellSet [");
+        forEach((x, y) -> builder.append(" (").append(x).append(", ").append(y).append(')'));
+        return builder.append(" ]").toString();
+    }
+}
@@ -0,0 +1,216 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A ClearRule is a shape of blocks which is cleared whenever every block of it is filled, anywhere on the grid, in the
+ * same way as a full row or column. Squares, diagonals and shapes drawn the same way as pieces are supported.
+ *
+ * The shape is kept as one mask per row. Looking for matches tests every position in a row of the grid at once: the
+ * occupied bits of the grid are shifted under each block of the shape and ANDed together, leaving a bit set for each
+ * position where the whole shape is filled. Only positions which overlap the area of the last piece played are
+ * tested.
+ */
+public class ClearRule {
+
+    /**
+     * The largest width of a rule, so one row of it fits in a run of grid bits
+     */
+    public static final int MAX_WIDTH = 63;
+
+    /**
+     * The name of this rule
+     */
+    private final String name;
+
+    /**
+     * The width of the shape
+     */
+    private final int width;
+
+    /**
+     * The blocks in each row of the shape, with bit x set for the block at column x
+     */
+    private final long[] rowMasks;
+
+    /**
+     * Create a new rule. Use one of the factory methods instead.
+     *
+     * @param name name of the rule
+     * @param width width of the shape
+     * @param rowMasks blocks in each row of the shape
+     */
+    private ClearRule(String name, int width, long[] rowMasks) {
+        if (width < 1 || width > MAX_WIDTH || rowMasks.length < 1) {
+            throw new IllegalArgumentException("Rule " + name + " must be between 1 and " + MAX_WIDTH + " wide");
+        }
+        boolean blocks = false;
+        for (long rowMask : rowMasks) {
+            blocks |= rowMask != 0;
+        }
+        if (!blocks) {
+            throw new IllegalArgumentException("Rule " + name + " has no blocks");
+        }
+        this.name = name;
+        this.width = width;
+        this.rowMasks = rowMasks;
+    }
+
+    /**
+     * Create a rule which clears any filled square of the given size
+     *
+     * @param size width and height of the square
+     * @return the rule
+     */
+    public static ClearRule square(int size) {
+        long[] rowMasks = new long[size];
+        for (int y = 0; y < size; y++) {
+            rowMasks[y] = (1L << size) - 1;
+        }
+        return new ClearRule("Square " + size + "x" + size, size, rowMasks);
+    }
+
+    /**
+     * Create a rule which clears any filled diagonal of the given length, running from top left to bottom right
+     *
+     * @param length number of blocks in the diagonal
+     * @return the rule
+     */
+    public static ClearRule diagonal(int length) {
+        long[] rowMasks = new long[length];
+        for (int y = 0; y < length; y++) {
+            rowMasks[y] = 1L << y;
+        }
+        return new ClearRule("Diagonal " + length, length, rowMasks);
+    }
+
+    /**
+     * Create a rule which clears any filled diagonal of the given length, running from top right to bottom left
+     *
+     * @param length number of blocks in the diagonal
+     * @return the rule
+     */
+    public static ClearRule antiDiagonal(int length) {
+        long[] rowMasks = new long[length];
+        for (int y = 0; y < length; y++) {
+            rowMasks[y] = 1L << (length - 1 - y);
+        }
+        return new ClearRule("Anti-diagonal " + length, length, rowMasks);
+    }
+
+    /**
+     * Create a rule which clears any filled copy of a shape, drawn as rows with X for a block and . for a space.
+     * The shape is not rotated.
+     *
+     * @param name name of the rule
+     * @param rows rows of the shape, all the same length
+     * @return the rule
+     */
+    public static ClearRule shape(String name, String... rows) {
+        int width = rows.length > 0 ? rows[0].length() : 0;
+        long[] rowMasks = new long[rows.length];
+        for (int y = 0; y < rows.length; y++) {
+            if (rows[y].length() != width) {
+                throw new IllegalArgumentException("Rows of rule " + name + " are not all the same length");
+            }
+            for (int x = 0; x < width; x++) {
+                char block = rows[y].charAt(x);
+                if (block == 'X') {
+                    rowMasks[y] |= 1L << x;
+                } else if (block != '.') {
+                    throw new IllegalArgumentException("Rule " + name + " has unexpected character '" + block + "'");
+                }
+            }
+        }
+        return new ClearRule(name, width, rowMasks);
+    }
+
+    /**
+     * Find every position of this rule's shape which is completely filled and overlaps the given area of the grid,
+     * and add its blocks to a set
+     *
+     * @param grid the grid to search
+     * @param minX first column of the area
+     * @param minY first row of the area
+     * @param maxX last column of the area
+     * @param maxY last row of the area
+     * @param cleared set to add the blocks of every match to
+     * @return the number of matches
+     */
+    int match(Grid grid, int minX, int minY, int maxX, int maxY, CellSet cleared) {
+        int height = rowMasks.length;
+        //The top left corners of every position which overlaps the area and fits on the grid
+        int lowX = Math.max(minX - width + 1, 0);
+        int highX = Math.min(maxX, grid.getCols() - width);
+        int lowY = Math.max(minY - height + 1, 0);
+        int highY = Math.min(maxY, grid.getRows() - height);
+
+        int matches = 0;
+        for (int y = lowY; y <= highY; y++) {
+            //Test up to 63 corners along the row at a time, bit i standing for the corner at column x + i
+            for (int x = lowX; x <= highX; x += Long.SIZE - 1) {
+                int length = Math.min(highX - x + 1, Long.SIZE - 1);
+                long found = (1L << length) - 1;
+                for (int dy = 0; dy < height && found != 0; dy++) {
+                    for (long blocks = rowMasks[dy]; blocks != 0 && found != 0; blocks &= blocks - 1) {
+                        found &= grid.rowBits(y + dy, x + Long.numberOfTrailingZeros(blocks), length);
+                    }
+                }
+                for (; found != 0; found &= found - 1) {
+                    add(x + Long.numberOfTrailingZeros(found), y, cleared);
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Add the blocks of the shape at the given position to a set
+     *
+     * @param left column of the left of the shape
+     * @param top row of the top of the shape
+     * @param cleared set to add to
+     */
+    private void add(int left, int top, CellSet cleared) {
+        for (int dy = 0; dy < rowMasks.length; dy++) {
+            for (long blocks = rowMasks[dy]; blocks != 0; blocks &= blocks - 1) {
+                cleared.add(left + Long.numberOfTrailingZeros(blocks), top + dy);
+            }
+        }
+    }
+
+    /**
+     * Get the width of this rule's shape
+     *
+     * @return width
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the height of this rule's shape
+     *
+     * @return height
+     */
+    public int getHeight() {
+        return rowMasks.length;
+    }
+
+    /**
+     * Get the name of this rule
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the string representation of this rule
+     *
+     * @return the name of this rule
+     */
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,950 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.util.Unbox;
+import uk.ac.soton.comp1206.event.FallListener;
+import uk.ac.soton.comp1206.event.GameEndListener;
+import uk.ac.soton.comp1206.event.GameLoopListener;
+import uk.ac.soton.comp1206.event.GameStatsListener;
+import uk.ac.soton.comp1206.event.LineClearListener;
+import uk.ac.soton.comp1206.event.NextPieceListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executor;
+
+/**
+ * The Game class handles the main logic and state of the TetrECS game. Methods to manipulate the game state
+ * and to handle actions made by the player should take place inside this class.
+ *
+ * The Game does not depend on any display: it keeps its state as plain values and reports changes through its
+ * listeners, so it can be run without a user interface.
+ */
+public class Game {
+
+    private static final Logger logger = LogManager.getLogger(Game.class);
+
+    /**
+     * Number of rows
+     */
+    protected final int rows;
+
+    /**
+     * Number of columns
+     */
+    protected final int cols;
+
+    /**
+     * The grid model linked to the game
+     */
+    protected final Grid grid;
+
+    /**
+     * The blocks to be cleared after a piece is played. The same set is reused for every clear, so it is only valid
+     * while the line clear is being handled.
+     */
+    protected final CellSet cleared;
+
+    /**
+     * The current GamePiece being played
+     */
+    protected GamePiece currentPiece;
+
+    /**
+     * The next GamePiece to be played
+     */
+    protected GamePiece followingPiece;
+
+    /**
+     * The last piece played and its centre, or -1 if no piece has been played since the last check for lines
+     */
+    protected GamePiece placedPiece;
+    protected int placedX = -1;
+    protected int placedY = -1;
+
+    /**
+     * Current Score of the player
+     */
+    protected int score = 0;
+
+    /**
+     * Current Level of the game
+     */
+    protected int level = 0;
+
+    /**
+     * Current Lives left of the player
+     */
+    protected int lives = 3;
+
+    /**
+     * Current Game Multiplier
+     */
+    protected int multiplier = 1;
+
+    //Listeners used for Game Logic
+    protected NextPieceListener nextPieceListener;
+    protected LineClearListener lineClearListener;
+    protected FallListener fallListener;
+    protected GameLoopListener gameLoopListener;
+    protected GameEndListener gameEndListener;
+    protected GameStatsListener gameStatsListener;
+
+    /**
+     * Total number of lines cleared this game
+     */
+    protected int linesCleared = 0;
+
+    /**
+     * Whether the game has been lost
+     */
+    protected boolean over = false;
+
+    /**
+     * Decides which pieces are played
+     */
+    protected final PieceSource pieceSource;
+
+    /**
+     * The pieces the piece source's numbers refer to
+     */
+    protected final PieceSet pieceSet;
+
+    /**
+     * Shapes which are cleared when filled, as well as full rows and columns
+     */
+    protected final ArrayList<ClearRule> clearRules = new ArrayList<>();
+
+    /**
+     * Whether blocks fall into the cells left by a clear
+     */
+    protected boolean gravity = false;
+
+    /**
+     * The blocks which fell after the last clear
+     */
+    protected final MoveList fallen;
+
+    /**
+     * Every piece taken from the piece source so far, so undoing and redoing turns gives the same pieces again
+     */
+    protected byte[] pieceLog = new byte[64];
+    protected int piecesLogged = 0;
+
+    /**
+     * The position in the piece log of the next piece to spawn
+     */
+    protected int pieceIndex = 0;
+
+    /**
+     * Snapshots of the turns that can be undone, most recent first
+     */
+    protected final ArrayDeque<GameSnapshot> undoHistory = new ArrayDeque<>();
+
+    /**
+     * Snapshots of the turns that can be redone, most recent first
+     */
+    protected final ArrayDeque<GameSnapshot> redoHistory = new ArrayDeque<>();
+
+    /**
+     * The most turns kept for undoing; the oldest are dropped past this
+     */
+    protected int historyLimit = 1000;
+
+    /**
+     * Clock - detects when a turn should end. By default the real-time timer shared with every other game.
+     */
+    protected GameClock clock = HashedWheelTimer.shared();
+    protected int initialDelay = 12000;
+
+    /**
+     * The timeout for the current turn, scheduled again at the start of every turn
+     */
+    protected GameClock.Timeout turnTimeout;
+
+    /**
+     * When the current turn ends, as given by the clock; a timeout which fires before this is out of date
+     */
+    protected long turnDeadline = Long.MAX_VALUE;
+
+    /**
+     * Checks whether the turn is over, sent through the dispatcher each time the turn timeout fires
+     */
+    private final Runnable turnCheck = this::checkTurn;
+
+    /**
+     * Runs work that comes from outside the game, such as the timer firing, on the thread that owns the game.
+     * By default the work is run straight away on whichever thread it came from.
+     */
+    protected Executor dispatcher = Runnable::run;
+
+    /**
+     * Create a new game with the specified rows and columns. Creates a corresponding grid model.
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public Game(int cols, int rows) {
+        this(cols, rows, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Create a new game with the specified rows and columns, picking pieces at random with the given seed so the
+     * sequence of pieces can be repeated.
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param seed seed for picking pieces
+     */
+    public Game(int cols, int rows, long seed) {
+        this(cols, rows, new RandomPieceSource(seed));
+    }
+
+    /**
+     * Create a new game with the specified rows and columns, taking pieces from the given source.
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param pieceSource source of the pieces to play
+     */
+    public Game(int cols, int rows, PieceSource pieceSource) {
+        this(cols, rows, pieceSource, PieceSet.standard());
+    }
+
+    /**
+     * Create a new game with the specified rows and columns, taking pieces from the given set in the order given by
+     * the source.
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param pieceSource source of the piece numbers to play, each less than the size of the set
+     * @param pieceSet the pieces to play
+     */
+    public Game(int cols, int rows, PieceSource pieceSource, PieceSet pieceSet) {
+        this.cols = cols;
+        this.rows = rows;
+        this.pieceSource = pieceSource;
+        this.pieceSet = pieceSet;
+
+        //Create a new grid model to represent the game state
+        this.grid = new Grid(cols,rows);
+        this.cleared = new CellSet(cols,rows);
+        this.fallen = new MoveList(cols,rows);
+    }
+
+    /**
+     * Get the lives left of the player
+     *
+     * @return lives
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Get the score of the player
+     *
+     * @return score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the level of the game
+     *
+     * @return level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Get the current multiplier of the game
+     *
+     * @return multiplier
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Start the game
+     */
+    public void start() {
+        logger.info("Starting game");
+        initialiseGame();
+        turnTimeout = clock.newTimeout(() -> dispatcher.execute(turnCheck));
+        startLoop();
+    }
+
+    /**
+     * Start the game from a saved snapshot, with the same board, pieces and stats, and the same time left in the
+     * turn. Later pieces come from this game's own piece source.
+     *
+     * @param saved the saved game
+     */
+    public void resume(GameSnapshot saved) {
+        logger.info("Resuming game");
+        restore(saved);
+        //The saved piece position belongs to the old game's pieces
+        pieceIndex = piecesLogged;
+        turnTimeout = clock.newTimeout(() -> dispatcher.execute(turnCheck));
+        startLoop(saved.getTimeLeft() >= 0 ? saved.getTimeLeft() : getTimerDelay());
+    }
+
+    /**
+     * Initialise a new game and set up anything that needs to be done at the start
+     */
+    public void initialiseGame() {
+        logger.info("Initialising game");
+        followingPiece = spawnPiece();
+        nextPiece();
+    }
+
+    /**
+     * Handle what should happen when a particular block is clicked
+     * @param x the column of the block that was clicked
+     * @param y the row of the block that was clicked
+     * @return True or False whether a block has been clicked and placed
+     */
+    public boolean blockClicked(int x, int y) {
+        if(grid.canPlayPiece(currentPiece, x, y)) {
+            recordTurn();
+            //Report the piece and any lines it clears as one change
+            grid.beginTransaction();
+            try {
+                grid.playPiece(currentPiece, x, y);
+                placedPiece = currentPiece;
+                placedX = x;
+                placedY = y;
+                nextPiece();
+                afterPiece();
+            } finally {
+                grid.endTransaction();
+            }
+            //The game is over if neither piece can be played anywhere
+            if(!hasLegalMove()) {
+                logger.info("No legal moves left");
+                gameOver();
+            }
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Handles what should happen after a piece is played. Only the rows, columns and clear rule shapes covered by the
+     * piece just played can have been completed, so only those are checked.
+     */
+    public void afterPiece() {
+        //The piece covers the square it is defined in around its centre; with no placement recorded, check everything
+        int minX = 0, maxX = cols - 1, minY = 0, maxY = rows - 1;
+        if(placedX >= 0) {
+            int left = placedX - placedPiece.getCentre();
+            int top = placedY - placedPiece.getCentre();
+            minX = Math.max(left, 0);
+            maxX = Math.min(left + placedPiece.getSize() - 1, cols - 1);
+            minY = Math.max(top, 0);
+            maxY = Math.min(top + placedPiece.getSize() - 1, rows - 1);
+            placedX = -1;
+            placedY = -1;
+        }
+        int lines = findLines(minX, minY, maxX, maxY);
+
+        // If there is no line to clear
+        if(lines == 0) {
+            //Resets Multiplier
+            if(this.multiplier != 1) {
+                this.multiplier = 1;
+                statsChanged();
+            }
+            return;
+        }
+
+        fallen.clear();
+        while(lines > 0) {
+            //Blocks which fell and are now cleared no longer need to fall
+            if(!fallen.isEmpty()) {
+                for (int cell = cleared.nextCell(0); cell >= 0; cell = cleared.nextCell(cell + 1)) {
+                    fallen.remove(cell % cols, cell / cols);
+                }
+            }
+            // Clears Blocks
+            clear(cleared);
+            // Increments Score
+            linesCleared += lines;
+            score(lines, cleared.size());
+            // Increments Multiplier
+            this.multiplier += 1;
+            statsChanged();
+            if(lineClearListener != null) {
+                lineClearListener.lineClear(cleared);
+                //Calls Listener
+                logger.info("Clear Lines");
+            }
+
+            //With gravity, blocks fall into the cleared cells and can complete more lines anywhere below them
+            lines = 0;
+            if(gravity && grid.collapse(cleared, fallen) > 0) {
+                lines = findLines(0, 0, cols - 1, rows - 1);
+            }
+        }
+        if(!fallen.isEmpty() && fallListener != null) {
+            fallListener.blocksFell(fallen);
+        }
+    }
+
+    /**
+     * Find the full rows and columns and the filled clear rule shapes within an area, putting their blocks in the
+     * cleared set
+     *
+     * @param minX first column of the area
+     * @param minY first row of the area
+     * @param maxX last column of the area
+     * @param maxY last row of the area
+     * @return the number of lines and shapes found
+     */
+    private int findLines(int minX, int minY, int maxX, int maxY) {
+        int lines = 0;
+        cleared.clear();
+
+        // Vertical Lines
+        for(int x=minX; x <= maxX; x++) {
+            if(grid.isColumnFull(x)) {
+                lines+=1;
+                // Add the whole column to be cleared
+                cleared.addColumn(x);
+            }
+        }
+
+        // Horizontal Lines
+        for(int y=minY; y <= maxY; y++) {
+            if(grid.isRowFull(y)) {
+                lines+=1;
+                // Add the whole row to be cleared
+                cleared.addRow(y);
+            }
+        }
+
+        // Any other shapes which clear
+        for(int i = 0; i < clearRules.size(); i++) {
+            lines += clearRules.get(i).match(grid, minX, minY, maxX, maxY, cleared);
+        }
+        return lines;
+    }
+
+    /**
+     * Whether the current or following piece can be played anywhere, in any rotation. Each distinct rotation is
+     * tried with {@link Grid#canPlayAnywhere(GamePiece)}, which stops at the first legal position.
+     *
+     * @return true if there is at least one move
+     */
+    public boolean hasLegalMove() {
+        //Pieces which have not arrived yet, such as from a multiplayer server, could still fit
+        if(currentPiece == null || followingPiece == null) return true;
+        for(int rotation = 0; rotation < currentPiece.getRotations(); rotation++) {
+            if(grid.canPlayAnywhere(currentPiece.rotate(rotation))) return true;
+        }
+        for(int rotation = 0; rotation < followingPiece.getRotations(); rotation++) {
+            if(grid.canPlayAnywhere(followingPiece.rotate(rotation))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Iterates through a given CellSet and clears each block in it
+     *
+     * @param blocks A CellSet of blocks to be set to 0
+     */
+    public void clear(CellSet blocks) {
+        grid.beginTransaction();
+        try {
+            for (int i = blocks.nextCell(0); i >= 0; i = blocks.nextCell(i + 1)) {
+                grid.set(i % cols, i / cols, 0);
+            }
+        } finally {
+            grid.endTransaction();
+        }
+    }
+
+    /**
+     * Increases the Score depending on the number of lines and blocks cleared.
+     * Also increments Level every 1000 points
+     *
+     * @param lines Number of Lines Cleared
+     * @param blocks Number of Blocks Cleared
+     */
+    public void score(int lines, int blocks){
+        int scoreToAdd = lines*blocks*10*this.multiplier;
+        this.score += scoreToAdd;
+        logger.info("Score added, Score: {}", Unbox.box(this.score));
+        this.level = this.score / 1000;
+        statsChanged();
+    }
+
+    /**
+     * Get the grid model inside this game representing the game state of the board
+     *
+     * @return game grid model
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Get how close the board is to filling up, from 0 when it is empty to 1 when it is full. Holes shut in on every
+     * side count as filled, since only a piece with a block on its own could ever fill them. Worked out from the
+     * measures the grid keeps up to date, so it costs next to nothing.
+     *
+     * @return danger, from 0 to 1
+     */
+    public double getDanger() {
+        return Math.min((double) (grid.getFilledCount() + grid.getIsolatedCount()) / (cols * rows), 1);
+    }
+
+    /**
+     * Get a Zobrist hash of the state of the board and of the current and following pieces, including their rotation.
+     * The hash of the board is kept up to date by the grid as blocks change, and the pieces are folded in here, so
+     * it can be asked for every turn for free: to check the game matches another copy of it without comparing every
+     * block, or as the key of a table of positions already searched.
+     *
+     * @return hash of the game state
+     */
+    public long getStateHash() {
+        return grid.getHash() ^ Zobrist.piece(currentPiece, false) ^ Zobrist.piece(followingPiece, true);
+    }
+
+    /**
+     * Turn gravity on or off. With gravity, the blocks above a cleared cell fall down into it after every clear,
+     * and any lines this completes are cleared in turn, each scoring with a higher multiplier.
+     * @param gravity true for gravity
+     */
+    public void setGravity(boolean gravity) {
+        this.gravity = gravity;
+    }
+
+    /**
+     * Whether blocks fall into the cells left by a clear
+     * @return true if gravity is on
+     */
+    public boolean isGravity() {
+        return gravity;
+    }
+
+    /**
+     * Add a shape to be cleared whenever it is filled, such as a square or diagonal. Full rows and columns are
+     * always cleared; each match of a rule scores as a line.
+     * @param clearRule the rule to add
+     */
+    public void addClearRule(ClearRule clearRule) {
+        clearRules.add(clearRule);
+    }
+
+    /**
+     * Get the shapes cleared as well as full rows and columns
+     * @return clear rules
+     */
+    public List<ClearRule> getClearRules() {
+        return Collections.unmodifiableList(clearRules);
+    }
+
+    /**
+     * Get the set of pieces this game is played with
+     * @return piece set
+     */
+    public PieceSet getPieceSet() {
+        return pieceSet;
+    }
+
+    /**
+     * Get the number of columns in this game
+     *
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows in this game
+     *
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Takes the next piece from the piece source
+     *
+     * @return A new GamePiece
+     */
+    public GamePiece spawnPiece() {
+        if(pieceIndex == piecesLogged) {
+            if(piecesLogged == pieceLog.length) {
+                pieceLog = Arrays.copyOf(pieceLog, pieceLog.length * 2);
+            }
+            pieceLog[piecesLogged++] = (byte) pieceSource.next();
+        }
+        return pieceSet.get(pieceLog[pieceIndex++] & 0xFF, 0);
+    }
+
+    /**
+     * Reassigns currentPiece and followingPiece after a piece has been played
+     */
+    public void nextPiece() {
+        currentPiece = followingPiece;
+        followingPiece = spawnPiece();
+        if(nextPieceListener != null) {
+            nextPieceListener.nextPiece(currentPiece, followingPiece);
+        }
+    }
+
+    /**
+     * Take a snapshot of the current state of the game
+     *
+     * @return snapshot
+     */
+    public GameSnapshot snapshot() {
+        int timeLeft = turnDeadline == Long.MAX_VALUE ? -1 : (int) Math.max(turnDeadline - clock.now(), 0);
+        return new GameSnapshot(cols, rows, grid.copyValues(), score, level, lives, multiplier, linesCleared,
+                currentPiece, followingPiece, pieceIndex, over, timeLeft, getDanger(), gravity, pieceSet);
+    }
+
+    /**
+     * Put the game back into the state of a snapshot taken from it. Only the blocks that differ are changed, and the
+     * listeners are told about the new stats and pieces once.
+     *
+     * @param snapshot snapshot to restore
+     */
+    public void restore(GameSnapshot snapshot) {
+        grid.restore(snapshot);
+        score = snapshot.getScore();
+        level = snapshot.getLevel();
+        lives = snapshot.getLives();
+        multiplier = snapshot.getMultiplier();
+        linesCleared = snapshot.getLinesCleared();
+        currentPiece = snapshot.getCurrentPiece();
+        followingPiece = snapshot.getFollowingPiece();
+        pieceIndex = snapshot.getPieceIndex();
+        placedX = -1;
+        placedY = -1;
+        statsChanged();
+        if(nextPieceListener != null) {
+            nextPieceListener.nextPiece(currentPiece, followingPiece);
+        }
+    }
+
+    /**
+     * Remember the state at the start of a turn so it can be undone. Starting a new turn drops any redo history.
+     */
+    protected void recordTurn() {
+        if(historyLimit <= 0) return;
+        undoHistory.push(snapshot());
+        if(undoHistory.size() > historyLimit) {
+            undoHistory.removeLast();
+        }
+        redoHistory.clear();
+    }
+
+    /**
+     * Undo the last turn
+     *
+     * @return true if there was a turn to undo
+     */
+    public boolean undo() {
+        if(undoHistory.isEmpty()) return false;
+        redoHistory.push(snapshot());
+        restore(undoHistory.pop());
+        logger.info("Undo, {} turns left to undo", Unbox.box(undoHistory.size()));
+        return true;
+    }
+
+    /**
+     * Redo the last turn that was undone
+     *
+     * @return true if there was a turn to redo
+     */
+    public boolean redo() {
+        if(redoHistory.isEmpty()) return false;
+        undoHistory.push(snapshot());
+        restore(redoHistory.pop());
+        logger.info("Redo, {} turns left to redo", Unbox.box(redoHistory.size()));
+        return true;
+    }
+
+    /**
+     * Whether there is a turn to undo
+     *
+     * @return true if undo would do something
+     */
+    public boolean canUndo() {
+        return !undoHistory.isEmpty();
+    }
+
+    /**
+     * Whether there is a turn to redo
+     *
+     * @return true if redo would do something
+     */
+    public boolean canRedo() {
+        return !redoHistory.isEmpty();
+    }
+
+    /**
+     * Set the most turns kept for undoing. A limit of 0 turns the history off, which saves the cost of a snapshot
+     * every turn when nobody will undo, such as in simulations.
+     *
+     * @param historyLimit most turns to keep
+     */
+    public void setHistoryLimit(int historyLimit) {
+        this.historyLimit = historyLimit;
+        while(undoHistory.size() > Math.max(historyLimit, 0)) {
+            undoHistory.removeLast();
+        }
+        if(historyLimit <= 0) {
+            redoHistory.clear();
+        }
+    }
+
+    /**
+     * Set the executor which runs work from outside the game, such as the timer firing, on the thread that owns the
+     * game. A GameActor sets this to its mailbox.
+     *
+     * @param dispatcher executor for outside work
+     */
+    public void setDispatcher(Executor dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Set the clock which times the turns. Must be called before the game is started.
+     *
+     * @param clock the clock
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the listener for receiving notifications about the next game piece
+     *
+     * @param nextPieceListener The listener for next piece events
+     */
+    public void setNextPieceListener(NextPieceListener nextPieceListener) {
+        this.nextPieceListener = nextPieceListener;
+    }
+
+    /**
+     * Sets the listener for receiving line clear events
+     *
+     * @param lineClearListener The listener for line clear events
+     */
+    public void setLineClearListener(LineClearListener lineClearListener) {
+        this.lineClearListener = lineClearListener;
+    }
+
+    /**
+     * Sets the listener for receiving events when blocks fall after a clear, with gravity on
+     *
+     * @param fallListener The listener for fall events
+     */
+    public void setFallListener(FallListener fallListener) {
+        this.fallListener = fallListener;
+    }
+
+    /**
+     * Sets the listener for receiving game loop events
+     *
+     * @param gameLoopListener The listener for game loop events
+     */
+    public void setOnGameLoop(GameLoopListener gameLoopListener) {
+        this.gameLoopListener = gameLoopListener;
+    }
+
+    /**
+     * Sets the listener for receiving changes to the score, level, lives and multiplier
+     *
+     * @param gameStatsListener The listener for stats changes
+     */
+    public void setGameStatsListener(GameStatsListener gameStatsListener) {
+        this.gameStatsListener = gameStatsListener;
+    }
+
+    /**
+     * Calls the gameStatsListener when the score, level, lives or multiplier have changed
+     */
+    protected void statsChanged() {
+        if(gameStatsListener != null) {
+            gameStatsListener.statsChanged(this);
+        }
+    }
+
+    /**
+     *Sets the listener for receiving game end events
+     *
+     * @param gameEndListener The listener for game end events
+     */
+    public void setGameEndListener(GameEndListener gameEndListener) {
+        this.gameEndListener = gameEndListener;
+    }
+
+    /**
+     * Rotates the currentPiece
+     */
+    public void rotateCurrentPiece() {
+        rotateCurrentPiece(1);
+    }
+
+    /**
+     * Rotates the currentPiece clockwise the given number of times
+     *
+     * @param rotations number of rotations
+     */
+    public void rotateCurrentPiece(int rotations) {
+        currentPiece = currentPiece.rotate(rotations);
+    }
+
+    /**
+     * Swaps currentPiece and followingPiece
+     */
+    public void swapCurrentPiece() {
+        GamePiece temp = followingPiece;
+        followingPiece = currentPiece;
+        currentPiece = temp;
+    }
+
+    /**
+     * Returns the currentPiece
+     *
+     * @return currentPiece
+     */
+    public GamePiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    /**
+     * Returns the followingPiece
+     *
+     * @return followingPiece
+     */
+    public GamePiece getFollowingPiece() {
+        return followingPiece;
+    }
+
+    /**
+     * Returns the timerDelay, which is calculated based on level
+     *
+     * @return How long th timer should last in ms
+     */
+    public int getTimerDelay() {
+        int delay = initialDelay - (500 * level);
+        return Math.max(delay, 2500);
+    }
+
+    /**
+     * Get the total number of lines cleared this game
+     *
+     * @return lines cleared
+     */
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    /**
+     * Whether the game has been lost
+     *
+     * @return true once the game is over
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Called through the dispatcher when the turn timeout fires. Does nothing if the turn has since been restarted,
+     * which happens when a piece was played while the timeout was on its way, or if the game is over.
+     */
+    protected void checkTurn() {
+        if(!over && clock.now() >= turnDeadline) {
+            gameLoop();
+        }
+    }
+
+    /**
+     * Triggers GameLoop when the player does not play a piece
+     */
+    public void gameLoop() {
+        turnExpired();
+        if(gameLoopListener != null){
+            gameLoopListener.gameLoop(getTimerDelay());
+        }
+        startLoop();
+    }
+
+    /**
+     * Handles the player running out of time for a turn: the current piece is discarded and a life is lost, or the
+     * game ends if there are no lives left or the new pieces cannot be played. Does not touch the timer, so can be called directly when running without
+     * one.
+     */
+    public void turnExpired() {
+        recordTurn();
+        nextPiece();
+        if(lives == 0 || !hasLegalMove()) {
+            gameOver();
+        } else {
+            lives -= 1;
+            multiplier = 1;
+            statsChanged();
+        }
+    }
+
+    /**
+     * Starts the timer for a new turn
+     */
+    public void startLoop() {
+        startLoop(getTimerDelay());
+    }
+
+    /**
+     * Starts the timer for a turn of the given length
+     *
+     * @param delay length of the turn in milliseconds
+     */
+    protected void startLoop(int delay) {
+        turnDeadline = turnTimeout.schedule(delay);
+        if(gameLoopListener != null) {
+            gameLoopListener.gameLoop(delay);
+        }
+    }
+
+    /**
+     * Restarts timer when the player has played a piece
+     */
+    public void restartLoop() {
+        startLoop();
+    }
+
+    /**
+     * Ends the Game
+     */
+    public void endGame() {
+        logger.info("Game Has Ended");
+        turnDeadline = Long.MAX_VALUE;
+        if(turnTimeout != null) {
+            turnTimeout.cancel();
+        }
+    }
+
+    /**
+     * Calls the gameEndListener when a game has ended
+     */
+    public void gameOver() {
+        over = true;
+        if(gameEndListener != null){
+            gameEndListener.gameEnd(this);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.event.FallListener;
+import uk.ac.soton.comp1206.event.GameEndListener;
+import uk.ac.soton.comp1206.event.GameLoopListener;
+import uk.ac.soton.comp1206.event.LineClearListener;
+import uk.ac.soton.comp1206.event.SnapshotListener;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A GameActor owns a Game and is the only thing that touches it. Player input, the turn timer and anything else
+ * that wants to change the game sends a command to the actor's mailbox, and the commands are run one at a time in
+ * the order they were sent. After each batch of commands the actor takes a GameSnapshot and hands it, along with any
+ * events the batch raised, to a publisher such as the JavaFX thread. The UI only ever sees snapshots, so it never
+ * reads the game while it is being changed.
+ *
+ * The mailbox is a lock-free queue. Sending a command never blocks, and a batch is only scheduled on the owner
+ * executor when the actor is idle, so many actors can share a small pool of threads.
+ */
+public class GameActor {
+
+    private static final Logger logger = LogManager.getLogger(GameActor.class);
+
+    /**
+     * The game owned by this actor
+     */
+    private final Game game;
+
+    /**
+     * Runs batches of commands
+     */
+    private final Executor owner;
+
+    /**
+     * Delivers snapshots and events to the listeners
+     */
+    private final Executor publisher;
+
+    /**
+     * Commands waiting to be run
+     */
+    private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether a batch is scheduled or running
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Events raised by the current batch, delivered after its snapshot. Only used by the batch being run.
+     */
+    private final ArrayList<Runnable> events = new ArrayList<>();
+
+    /**
+     * The latest snapshot of the game
+     */
+    private volatile GameSnapshot snapshot;
+
+    /**
+     * The listener to give new snapshots to
+     */
+    private volatile SnapshotListener snapshotListener;
+
+    /**
+     * Create a new actor for a game, running its commands on the common ForkJoinPool
+     *
+     * @param game the game to own
+     * @param publisher executor which delivers snapshots and events, such as Platform::runLater
+     */
+    public GameActor(Game game, Executor publisher) {
+        this(game, ForkJoinPool.commonPool(), publisher);
+    }
+
+    /**
+     * Create a new actor for a game. Outside work the game does, such as handling its timer firing, is sent to this
+     * actor's mailbox from now on.
+     *
+     * @param game the game to own
+     * @param owner executor which runs batches of commands
+     * @param publisher executor which delivers snapshots and events, such as Platform::runLater
+     */
+    public GameActor(Game game, Executor owner, Executor publisher) {
+        this.game = game;
+        this.owner = owner;
+        this.publisher = publisher;
+        this.snapshot = game.snapshot();
+        game.setDispatcher(this::execute);
+    }
+
+    /**
+     * Send a command to be run on the game
+     *
+     * @param command the command
+     */
+    public void send(Consumer<? super Game> command) {
+        execute(() -> command.accept(game));
+    }
+
+    /**
+     * Send a command to be run on the game, and have its result given to a reply through the publisher
+     *
+     * @param command the command
+     * @param reply receives the result of the command
+     * @param <T> type of the result
+     */
+    public <T> void ask(Function<? super Game, T> command, Consumer<? super T> reply) {
+        execute(() -> {
+            T result = command.apply(game);
+            events.add(() -> reply.accept(result));
+        });
+    }
+
+    /**
+     * Add work to the mailbox, and schedule a batch if the actor is idle
+     *
+     * @param work the work
+     */
+    private void execute(Runnable work) {
+        mailbox.offer(work);
+        if (scheduled.compareAndSet(false, true)) {
+            owner.execute(this::runBatch);
+        }
+    }
+
+    /**
+     * Run every command in the mailbox, then publish the new state of the game. However the batch ends, the actor is
+     * left able to schedule the next one, so a failure is logged rather than stopping the game for good.
+     */
+    private void runBatch() {
+        try {
+            Runnable command;
+            while ((command = mailbox.poll()) != null) {
+                try {
+                    command.run();
+                } catch (Throwable e) {
+                    logger.error("Game command failed", e);
+                }
+            }
+            publish();
+        } catch (Throwable e) {
+            logger.error("Publishing the game failed", e);
+        } finally {
+            //Let the next command schedule a batch, unless one arrived while publishing
+            scheduled.set(false);
+            if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                owner.execute(this::runBatch);
+            }
+        }
+    }
+
+    /**
+     * Take a snapshot of the game and deliver it, followed by the events raised while it was changing
+     */
+    private void publish() {
+        GameSnapshot latest = game.snapshot();
+        snapshot = latest;
+        Runnable[] raised = events.toArray(new Runnable[0]);
+        events.clear();
+        publisher.execute(() -> {
+            SnapshotListener listener = snapshotListener;
+            if (listener != null) {
+                listener.snapshot(latest);
+            }
+            for (Runnable event : raised) {
+                event.run();
+            }
+        });
+    }
+
+    /**
+     * Get the latest snapshot of the game
+     *
+     * @return snapshot
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Set the listener to receive a snapshot after every batch of commands, through the publisher
+     *
+     * @param snapshotListener the listener
+     */
+    public void setSnapshotListener(SnapshotListener snapshotListener) {
+        this.snapshotListener = snapshotListener;
+    }
+
+    /**
+     * Set the listener for line clear events, called through the publisher with its own copy of the cleared blocks
+     *
+     * @param lineClearListener the listener
+     */
+    public void setLineClearListener(LineClearListener lineClearListener) {
+        send(game -> game.setLineClearListener(clearedBlocks -> {
+            CellSet copy = new CellSet(clearedBlocks);
+            events.add(() -> lineClearListener.lineClear(copy));
+        }));
+    }
+
+    /**
+     * Set the listener for blocks falling after a clear, called through the publisher with its own copy of the moves
+     *
+     * @param fallListener the listener
+     */
+    public void setFallListener(FallListener fallListener) {
+        send(game -> game.setFallListener(moves -> {
+            MoveList copy = new MoveList(moves);
+            events.add(() -> fallListener.blocksFell(copy));
+        }));
+    }
+
+    /**
+     * Set the listener for game loop events, called through the publisher
+     *
+     * @param gameLoopListener the listener
+     */
+    public void setOnGameLoop(GameLoopListener gameLoopListener) {
+        send(game -> game.setOnGameLoop(delay -> events.add(() -> gameLoopListener.gameLoop(delay))));
+    }
+
+    /**
+     * Set the listener for game end events, called through the publisher
+     *
+     * @param gameEndListener the listener
+     */
+    public void setGameEndListener(GameEndListener gameEndListener) {
+        send(game -> game.setGameEndListener(ended -> events.add(() -> gameEndListener.gameEnd(ended))));
+    }
+}
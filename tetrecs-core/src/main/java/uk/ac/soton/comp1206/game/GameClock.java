@@ -0,0 +1,49 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The source of time for a game's turn timer. The shared {@link HashedWheelTimer} follows the real clock, and a
+ * {@link VirtualClock} only moves when it is told to, so timed play can be run as fast as the game itself can go.
+ */
+public interface GameClock {
+
+    /**
+     * Get the current time
+     *
+     * @return time in milliseconds
+     */
+    long now();
+
+    /**
+     * Create a new handle which runs the given task each time it expires
+     *
+     * @param task the task
+     * @return an unscheduled timeout
+     */
+    Timeout newTimeout(Runnable task);
+
+    /**
+     * A reusable handle for a task to run after a delay
+     */
+    interface Timeout {
+
+        /**
+         * Schedule the task to run after the given delay, replacing any earlier schedule
+         *
+         * @param delayMillis delay in milliseconds
+         * @return the time the task is due, as given by now()
+         */
+        long schedule(long delayMillis);
+
+        /**
+         * Stop the task from running, if it is scheduled
+         */
+        void cancel();
+
+        /**
+         * Whether the task is waiting to run
+         *
+         * @return true if scheduled
+         */
+        boolean isScheduled();
+    }
+}
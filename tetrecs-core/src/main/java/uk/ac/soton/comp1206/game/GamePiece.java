@@ -0,0 +1,299 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * Instances of GamePiece Represents the model of a specific Game Piece with it's block makeup.
+ *
+ * The GamePiece class also contains a factory for producing a GamePiece of a particular shape from the standard
+ * {@link PieceSet}, as specified by it's number.
+ *
+ * Every piece in every rotation is built once, when its PieceSet is loaded, and shared. A GamePiece is immutable:
+ * rotating a piece returns the shared instance for the next rotation rather than changing this one.
+ */
+public class GamePiece {
+
+    /**
+     * The total number of pieces in the standard set, which the multiplayer server also deals from
+     */
+    public static final int PIECES = 15;
+
+    /**
+     * The most distinct rotations a piece can have
+     */
+    public static final int ROTATIONS = 4;
+
+    /**
+     * The number of this piece
+     */
+    private final int piece;
+
+    /**
+     * The rotation of this piece, from 0 to one less than its number of distinct rotations
+     */
+    private final int rotation;
+
+    /**
+     * The width and height of the square this piece is defined in
+     */
+    private final int size;
+
+    /**
+     * The row and column of the block the piece is placed by
+     */
+    private final int centre;
+
+    /**
+     * The shape of this piece, with bit (y * size + x) set for every filled block
+     */
+    private final long mask;
+
+    /**
+     * The filled blocks of each row of this piece, one byte per row, so a row can be read without knowing the size
+     */
+    private final long rowMasks;
+
+    /**
+     * The first and last columns and rows of this piece with a block in
+     */
+    private final int left;
+    private final int right;
+    private final int top;
+    private final int bottom;
+
+    /**
+     * The value of this piece
+     */
+    private final int value;
+
+    /**
+     * The name of this piece
+     */
+    private final String name;
+
+    /**
+     * Every distinct rotation of this piece, shared between them
+     */
+    private final GamePiece[] rotations;
+
+    /**
+     * Create a new GamePiece of the specified piece number
+     *
+     * @param piece piece number
+     * @return the created GamePiece
+     */
+    public static GamePiece createPiece(int piece) {
+        return createPiece(piece, 0);
+    }
+
+    /**
+     * Create a new GamePiece of the specified piece number and rotation
+     *
+     * @param piece    piece number
+     * @param rotation number of times to rotate
+     * @return the created GamePiece
+     */
+    public static GamePiece createPiece(int piece, int rotation) {
+        return PieceSet.standard().get(piece, rotation);
+    }
+
+    /**
+     * Create a new GamePiece with the given name, shape and value. Should not be called directly, only via a
+     * PieceSet.
+     *
+     * @param name      name of the piece
+     * @param piece     number of the piece
+     * @param rotation  rotation of the piece
+     * @param size      width and height of the shape
+     * @param mask      shape of the piece
+     * @param value     the value of this piece
+     * @param rotations every distinct rotation of the piece, filled in by the PieceSet
+     */
+    GamePiece(String name, int piece, int rotation, int size, long mask, int value, GamePiece[] rotations) {
+        this.name = name;
+        this.piece = piece;
+        this.rotation = rotation;
+        this.size = size;
+        this.centre = (size - 1) / 2;
+        this.mask = mask;
+        this.value = value;
+        this.rotations = rotations;
+
+        long packed = 0;
+        for (int y = 0; y < size; y++) {
+            packed |= ((mask >>> (y * size)) & ((1L << size) - 1)) << (y * Byte.SIZE);
+        }
+        this.rowMasks = packed;
+
+        int columns = 0;
+        for (int y = 0; y < size; y++) {
+            columns |= getRowMask(y);
+        }
+        this.left = Integer.numberOfTrailingZeros(columns);
+        this.right = 31 - Integer.numberOfLeadingZeros(columns);
+        this.top = Long.numberOfTrailingZeros(packed) / Byte.SIZE;
+        this.bottom = (63 - Long.numberOfLeadingZeros(packed)) / Byte.SIZE;
+    }
+
+    /**
+     * Get the block makeup of this piece. The returned array is a copy and changing it does not affect the piece.
+     *
+     * @return 2D grid of the blocks representing the piece shape
+     */
+    public int[][] getBlocks() {
+        int[][] blocks = new int[size][size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                if (isFilled(x, y)) blocks[x][y] = value;
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Get the shape of this piece as a bitmask, with bit (y * size + x) set for every filled block
+     *
+     * @return shape mask
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Get the filled blocks in one row of this piece, with bit x set for every filled block in that row
+     *
+     * @param y row of the piece
+     * @return row mask
+     */
+    public int getRowMask(int y) {
+        return (int) (rowMasks >>> (y * Byte.SIZE)) & 0xFF;
+    }
+
+    /**
+     * Get the first column of this piece with a block in
+     *
+     * @return column
+     */
+    int getLeft() {
+        return left;
+    }
+
+    /**
+     * Get the last column of this piece with a block in
+     *
+     * @return column
+     */
+    int getRight() {
+        return right;
+    }
+
+    /**
+     * Get the first row of this piece with a block in
+     *
+     * @return row
+     */
+    int getTop() {
+        return top;
+    }
+
+    /**
+     * Get the last row of this piece with a block in
+     *
+     * @return row
+     */
+    int getBottom() {
+        return bottom;
+    }
+
+    /**
+     * Whether the block at the given position in this piece is filled
+     *
+     * @param x column of the piece
+     * @param y row of the piece
+     * @return true if filled
+     */
+    public boolean isFilled(int x, int y) {
+        return (mask & (1L << (y * size + x))) != 0;
+    }
+
+    /**
+     * Get the width and height of the square this piece is defined in
+     *
+     * @return size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Get the row and column of the block this piece is placed by. When the piece is played at (x, y), its block at
+     * (i, j) lands at (x - centre + i, y - centre + j).
+     *
+     * @return centre
+     */
+    public int getCentre() {
+        return centre;
+    }
+
+    /**
+     * Get the value of this piece, used as the value of every block it fills
+     *
+     * @return value
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * Get the number of this piece
+     *
+     * @return piece number
+     */
+    public int getPiece() {
+        return piece;
+    }
+
+    /**
+     * Get the rotation of this piece
+     *
+     * @return rotation, from 0 to one less than the number of rotations
+     */
+    public int getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Get the number of distinct rotations of this piece
+     *
+     * @return 1, 2 or 4
+     */
+    public int getRotations() {
+        return rotations.length;
+    }
+
+    /**
+     * Get this piece rotated the given number of rotations
+     *
+     * @param rotations number of rotations
+     * @return the rotated piece
+     */
+    public GamePiece rotate(int rotations) {
+        return this.rotations[Math.floorMod(rotation + rotations, this.rotations.length)];
+    }
+
+    /**
+     * Get this piece rotated exactly once clockwise
+     *
+     * @return the rotated piece
+     */
+    public GamePiece rotate() {
+        return rotate(1);
+    }
+
+    /**
+     * Return the string representation of this piece
+     *
+     * @return the name of this piece
+     */
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,347 @@
+package uk.ac.soton.comp1206.game;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * An immutable copy of the state of a Game at one point in time: the packed grid, the stats, the pieces and the rules
+ * they are played by. The
+ * grid is kept packed at 4 bits per block and the pieces are the shared GamePiece instances, so a snapshot of a
+ * 5x5 game is under a hundred bytes. Snapshots are safe to hand between threads, which is how a GameActor shows the
+ * game to the UI.
+ *
+ * A snapshot can also be written out in a small binary format and read back, which is how games are autosaved. The
+ * saved format records whether gravity was on and the name of the piece set, so a game carries on with the same rules
+ * and pieces whatever the game is started with.
+ */
+public class GameSnapshot {
+
+    /**
+     * Marks the start of a saved snapshot, "TECS"
+     */
+    private static final int MAGIC = 0x54454353;
+
+    /**
+     * Version of the saved format
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Number of columns
+     */
+    private final int cols;
+
+    /**
+     * Number of rows
+     */
+    private final int rows;
+
+    /**
+     * Packed block values, as given by Grid.copyValues
+     */
+    private final long[] values;
+
+    private final int score;
+    private final int level;
+    private final int lives;
+    private final int multiplier;
+    private final int linesCleared;
+
+    private final GamePiece currentPiece;
+    private final GamePiece followingPiece;
+
+    /**
+     * Number of pieces taken from the piece source when the snapshot was made
+     */
+    private final int pieceIndex;
+
+    /**
+     * Whether the game had been lost
+     */
+    private final boolean over;
+
+    /**
+     * Time left in the turn in milliseconds, or -1 if the turn timer was not running
+     */
+    private final int timeLeft;
+
+    /**
+     * How close the board was to filling up, from 0 to 1
+     */
+    private final double danger;
+
+    /**
+     * Whether the game was played with gravity
+     */
+    private final boolean gravity;
+
+    /**
+     * The set the pieces come from
+     */
+    private final PieceSet pieceSet;
+
+    /**
+     * Create a new snapshot. Snapshots are made by the Game.
+     */
+    GameSnapshot(int cols, int rows, long[] values, int score, int level, int lives, int multiplier,
+                 int linesCleared, GamePiece currentPiece, GamePiece followingPiece, int pieceIndex,
+                 boolean over, int timeLeft, double danger, boolean gravity, PieceSet pieceSet) {
+        this.cols = cols;
+        this.rows = rows;
+        this.values = values;
+        this.score = score;
+        this.level = level;
+        this.lives = lives;
+        this.multiplier = multiplier;
+        this.linesCleared = linesCleared;
+        this.currentPiece = currentPiece;
+        this.followingPiece = followingPiece;
+        this.pieceIndex = pieceIndex;
+        this.over = over;
+        this.timeLeft = timeLeft;
+        this.danger = danger;
+        this.gravity = gravity;
+        this.pieceSet = pieceSet;
+    }
+
+    /**
+     * Write this snapshot in the saved format. Only a snapshot with both pieces can be written.
+     *
+     * @param out where to write
+     * @throws IOException if writing fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeBoolean(gravity);
+        out.writeUTF(pieceSet.getName());
+        out.writeShort(cols);
+        out.writeShort(rows);
+        for (long word : values) {
+            out.writeLong(word);
+        }
+        out.writeInt(score);
+        out.writeInt(level);
+        out.writeInt(lives);
+        out.writeInt(multiplier);
+        out.writeInt(linesCleared);
+        out.writeByte(currentPiece.getPiece());
+        out.writeByte(currentPiece.getRotation());
+        out.writeByte(followingPiece.getPiece());
+        out.writeByte(followingPiece.getRotation());
+        out.writeInt(timeLeft);
+    }
+
+    /**
+     * Read a snapshot written by writeTo
+     *
+     * @param in where to read from
+     * @return the snapshot
+     * @throws IOException if reading fails or the data is not a saved snapshot
+     */
+    public static GameSnapshot readFrom(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Not a saved game");
+        }
+        boolean gravity = in.readBoolean();
+        PieceSet pieceSet = readPieceSet(in.readUTF());
+        int cols = in.readShort();
+        int rows = in.readShort();
+        if (cols <= 0 || rows <= 0) {
+            throw new IOException("Bad board size " + cols + "x" + rows);
+        }
+        long[] values = new long[(cols * rows + 15) / 16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+        int score = in.readInt();
+        int level = in.readInt();
+        int lives = in.readInt();
+        int multiplier = in.readInt();
+        int linesCleared = in.readInt();
+        GamePiece currentPiece = readPiece(in, pieceSet);
+        GamePiece followingPiece = readPiece(in, pieceSet);
+        int timeLeft = in.readInt();
+        //Danger is not saved, as it is worked out again once the game is restored
+        return new GameSnapshot(cols, rows, values, score, level, lives, multiplier, linesCleared,
+                currentPiece, followingPiece, 0, false, timeLeft, 0, gravity, pieceSet);
+    }
+
+    /**
+     * Find the piece set a snapshot was saved with
+     *
+     * @param name name of the set
+     * @return the piece set
+     * @throws IOException if there is no such set
+     */
+    private static PieceSet readPieceSet(String name) throws IOException {
+        if (name.equals(PieceSet.standard().getName())) {
+            return PieceSet.standard();
+        }
+        try {
+            return PieceSet.load(name);
+        } catch (RuntimeException e) {
+            throw new IOException("Could not load piece set " + name, e);
+        }
+    }
+
+    /**
+     * Read a piece number and rotation
+     *
+     * @param in where to read from
+     * @param pieceSet the set the piece comes from
+     * @return the piece
+     * @throws IOException if reading fails or the piece does not exist
+     */
+    private static GamePiece readPiece(DataInput in, PieceSet pieceSet) throws IOException {
+        int piece = in.readUnsignedByte();
+        int rotation = in.readUnsignedByte();
+        if (piece >= pieceSet.size() || rotation >= pieceSet.getRotations(piece)) {
+            throw new IOException("Bad piece " + piece + "/" + rotation);
+        }
+        return pieceSet.get(piece, rotation);
+    }
+
+    /**
+     * Get the value of a block in the snapshot
+     * @param x column
+     * @param y row
+     * @return the value, or -1 if outside the grid
+     */
+    public int get(int x, int y) {
+        if(x < 0 || x >= cols || y < 0 || y >= rows) {
+            return -1;
+        }
+        int index = y * cols + x;
+        return (int) ((values[index >>> 4] >>> ((index & 15) * 4)) & 15);
+    }
+
+    /**
+     * Get the packed block values. Shared with the snapshot, so must not be changed.
+     * @return packed block values
+     */
+    long[] getValues() {
+        return values;
+    }
+
+    /**
+     * Get the number of columns
+     * @return columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows
+     * @return rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the score
+     * @return score
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Get the level
+     * @return level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Get the lives left
+     * @return lives
+     */
+    public int getLives() {
+        return lives;
+    }
+
+    /**
+     * Get the multiplier
+     * @return multiplier
+     */
+    public int getMultiplier() {
+        return multiplier;
+    }
+
+    /**
+     * Get the total number of lines cleared
+     * @return lines cleared
+     */
+    public int getLinesCleared() {
+        return linesCleared;
+    }
+
+    /**
+     * Get the current piece
+     * @return current piece
+     */
+    public GamePiece getCurrentPiece() {
+        return currentPiece;
+    }
+
+    /**
+     * Get the following piece
+     * @return following piece
+     */
+    public GamePiece getFollowingPiece() {
+        return followingPiece;
+    }
+
+    /**
+     * Get the number of pieces taken from the piece source
+     * @return piece index
+     */
+    public int getPieceIndex() {
+        return pieceIndex;
+    }
+
+    /**
+     * Whether the game had been lost
+     * @return true if the game was over
+     */
+    public boolean isOver() {
+        return over;
+    }
+
+    /**
+     * Get the time that was left in the turn
+     * @return time in milliseconds, or -1 if the turn timer was not running
+     */
+    public int getTimeLeft() {
+        return timeLeft;
+    }
+
+    /**
+     * Get how close the board was to filling up
+     * @return danger, from 0 to 1
+     */
+    public double getDanger() {
+        return danger;
+    }
+
+    /**
+     * Whether the game was played with gravity
+     * @return true if gravity was on
+     */
+    public boolean isGravity() {
+        return gravity;
+    }
+
+    /**
+     * Get the set the pieces come from
+     * @return piece set
+     */
+    public PieceSet getPieceSet() {
+        return pieceSet;
+    }
+}
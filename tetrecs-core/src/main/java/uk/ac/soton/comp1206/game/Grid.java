@@ -0,0 +1,884 @@
+package uk.ac.soton.comp1206.game;
+
+import uk.ac.soton.comp1206.event.GridListener;
+
+import java.util.Arrays;
+
+/**
+ * The Grid is a model which holds the state of a game board. It is made up of a set of Integer values arranged in a 2D
+ * arrow, with rows and columns.
+ *
+ * The state of the Grid is held in a bitboard: each row is a run of longs with one occupancy bit per column, and the
+ * value of every block is packed as a 4 bit nibble alongside it. Placement checks and line detection work directly on
+ * these bits. A Zobrist hash of the blocks is kept up to date as they change, so grids can be compared by a single
+ * long.
+ *
+ * A few measures of how the board is doing are also kept up to date on every change, each costing a few operations
+ * per block: how full it is and how many rows and columns are one block short of clearing. Empty cells shut in on
+ * every side are counted by row, and only the rows around a change are counted again, a word at a time, when the
+ * count is next asked for. The size of the largest empty region can change across the whole board when one block is
+ * placed, so it is only worked out when asked for, and only if the board has changed since.
+ *
+ * A GridListener can be attached to be told whenever a value inside the Grid changes, to enable display of the
+ * contents of the grid. Changes made inside a transaction are collected and reported together when it ends.
+ *
+ * The Grid contains functions related to modifying the model, for example, placing a piece inside the grid.
+ *
+ * The Grid should be linked to a GameBoard for it's display.
+ */
+public class Grid {
+
+    /**
+     * The number of bits used to store the value of a single block
+     */
+    private static final int VALUE_BITS = 4;
+
+    /**
+     * Mask of a single block value
+     */
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1;
+
+    /**
+     * The number of columns in this grid
+     */
+    private final int cols;
+
+    /**
+     * The number of rows in this grid
+     */
+    private final int rows;
+
+    /**
+     * The number of longs used to hold the occupancy of a single row
+     */
+    private final int words;
+
+    /**
+     * One bit per block, set when the block is not empty. Row y occupies words [y * words, (y + 1) * words)
+     */
+    private final long[] occupied;
+
+    /**
+     * The value of every block, packed 16 to a long in row-major order
+     */
+    private final long[] values;
+
+    /**
+     * The number of filled blocks in each row
+     */
+    private final int[] rowCounts;
+
+    /**
+     * The number of filled blocks in each column
+     */
+    private final int[] colCounts;
+
+    /**
+     * The number of filled blocks in the grid
+     */
+    private int filled = 0;
+
+    /**
+     * The number of rows and of columns with exactly one empty block
+     */
+    private int nearlyFullRows;
+    private int nearlyFullColumns;
+
+    /**
+     * The number of holes, empty blocks with a filled block or the edge of the grid on all four sides, in each row
+     * and in total, when they were last counted
+     */
+    private final int[] rowHoles;
+    private int isolated = 0;
+
+    /**
+     * One bit per row, set when a block in the row has been filled or emptied since the holes were counted
+     */
+    private final long[] holesDirty;
+
+    /**
+     * The number of blocks in the largest connected area of empty blocks, when it was last worked out
+     */
+    private int largestEmptyRegion;
+
+    /**
+     * Whether the blocks have been filled or emptied since the largest empty region was last worked out
+     */
+    private boolean regionDirty = true;
+
+    /**
+     * Working space for finding empty regions: the blocks already visited, and the blocks waiting to be. Created
+     * when first needed.
+     */
+    private long[] visited;
+    private int[] pending;
+
+    /**
+     * The Zobrist hash of every block in the grid
+     */
+    private long hash = 0;
+
+    /**
+     * The listener to call when a block changes value
+     */
+    private GridListener gridListener;
+
+    /**
+     * The blocks changed since the listener was last told, only kept while there is a listener
+     */
+    private final CellSet changed;
+
+    /**
+     * How many transactions are open; changes are only reported once the last one ends
+     */
+    private int transactions = 0;
+
+    /**
+     * Working space for collapse: how far the blocks of each column fall, and which columns have blocks falling.
+     * Created when first needed.
+     */
+    private int[] drops;
+    private long[] falling;
+
+    /**
+     * Create a new Grid with the specified number of columns and rows and initialise them
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public Grid(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+
+        //Create the bitboard itself
+        words = (cols + Long.SIZE - 1) / Long.SIZE;
+        occupied = new long[words * rows];
+        values = new long[(cols * rows * VALUE_BITS + Long.SIZE - 1) / Long.SIZE];
+        rowCounts = new int[rows];
+        colCounts = new int[cols];
+        changed = new CellSet(cols, rows);
+
+        rowHoles = new int[rows];
+        holesDirty = new long[(rows + Long.SIZE - 1) / Long.SIZE];
+        Arrays.fill(holesDirty, -1L);
+
+        //Only a grid one block wide or high starts with lines one block short
+        nearlyFullRows = cols == 1 ? rows : 0;
+        nearlyFullColumns = rows == 1 ? cols : 0;
+    }
+
+    /**
+     * Set the listener to be told whenever a block in this grid changes value
+     * @param gridListener the listener, or null to remove it
+     */
+    public void setGridListener(GridListener gridListener) {
+        this.gridListener = gridListener;
+        changed.clear();
+    }
+
+    /**
+     * Update the value at the given x and y index within the grid
+     * @param x column
+     * @param y row
+     * @param value the new value
+     */
+    public void set(int x, int y, int value) {
+        if(x < 0 || x >= cols || y < 0 || y >= rows) {
+            throw new ArrayIndexOutOfBoundsException("No such block: " + x + "," + y);
+        }
+
+        //Update the occupancy bit and the fill counts when it changes
+        int word = y * words + (x >>> 6);
+        long bit = 1L << x;
+        boolean wasFilled = (occupied[word] & bit) != 0;
+        if(value == 0) {
+            if(wasFilled) {
+                occupied[word] &= ~bit;
+                countChanged(x, y, -1);
+            }
+        } else if(!wasFilled) {
+            occupied[word] |= bit;
+            countChanged(x, y, 1);
+        }
+
+        //Update the packed value
+        int index = y * cols + x;
+        int shift = (index & 15) * VALUE_BITS;
+        long old = values[index >>> 4];
+        values[index >>> 4] = (old & ~(VALUE_MASK << shift)) | ((value & VALUE_MASK) << shift);
+        if(values[index >>> 4] == old) return;
+
+        //Swap the block's old key in the hash for its new one
+        int previous = (int) ((old >>> shift) & VALUE_MASK);
+        hash ^= Zobrist.cell(index, previous) ^ Zobrist.cell(index, (int) (value & VALUE_MASK));
+
+        //Tell the display about the change, now or at the end of the transaction
+        if(gridListener != null) {
+            changed.add(x, y);
+            if(transactions == 0) {
+                reportChanges();
+            }
+        }
+    }
+
+    /**
+     * Update the fill counts when a block is filled or emptied
+     * @param x column
+     * @param y row
+     * @param change 1 if the block was filled, -1 if it was emptied
+     */
+    private void countChanged(int x, int y, int change) {
+        if(rowCounts[y] == cols - 1) nearlyFullRows--;
+        if(colCounts[x] == rows - 1) nearlyFullColumns--;
+        rowCounts[y] += change;
+        colCounts[x] += change;
+        if(rowCounts[y] == cols - 1) nearlyFullRows++;
+        if(colCounts[x] == rows - 1) nearlyFullColumns++;
+        filled += change;
+        regionDirty = true;
+        holesDirty[y >>> 6] |= 1L << y;
+    }
+
+    /**
+     * Find the holes in one word of a row: empty blocks with a filled block or the edge of the grid on all four sides
+     * @param y row
+     * @param word index of the word within the row
+     * @return bits set for the holes
+     */
+    private long holes(int y, int word) {
+        if(y < 0 || y >= rows) return 0;
+        int index = y * words + word;
+        long bits = occupied[index];
+
+        //Whether the block to the left and to the right of each one is filled, counting the edges as filled
+        long left = (bits << 1) | (word > 0 ? occupied[index - 1] >>> 63 : 1);
+        long right = (bits >>> 1) | (word + 1 < words ? occupied[index + 1] << 63 : 0);
+        long inside = -1L;
+        if(word == words - 1) {
+            right |= 1L << (cols - 1);
+            inside = -1L >>> (Long.SIZE - 1 - ((cols - 1) & 63));
+        }
+        long above = y > 0 ? occupied[index - words] : -1L;
+        long below = y < rows - 1 ? occupied[index + words] : -1L;
+        return ~bits & left & right & above & below & inside;
+    }
+
+    /**
+     * Start a transaction. Changes made until the matching endTransaction are reported to the listener together.
+     * Transactions can be nested, in which case the changes are reported when the outermost one ends.
+     */
+    public void beginTransaction() {
+        transactions++;
+    }
+
+    /**
+     * End a transaction, reporting its changes if it is the outermost one
+     */
+    public void endTransaction() {
+        if(transactions == 0) {
+            throw new IllegalStateException("No transaction to end");
+        }
+        if(--transactions == 0) {
+            reportChanges();
+        }
+    }
+
+    /**
+     * Make any number of changes to the grid and report them to the listener once, when they are all done
+     *
+     * @param changes the changes to make
+     */
+    public void transaction(Runnable changes) {
+        beginTransaction();
+        try {
+            changes.run();
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * Tell the listener about the blocks changed since it was last told
+     */
+    private void reportChanges() {
+        if(gridListener != null && !changed.isEmpty()) {
+            gridListener.cellsChanged(this, changed);
+        }
+        changed.clear();
+    }
+
+    /**
+     * Get the value represented at the given x and y index within the grid
+     * @param x column
+     * @param y row
+     * @return the value
+     */
+    public int get(int x, int y) {
+        if(x < 0 || x >= cols || y < 0 || y >= rows) {
+            //No such index
+            return -1;
+        }
+        int index = y * cols + x;
+        return (int) ((values[index >>> 4] >>> ((index & 15) * VALUE_BITS)) & VALUE_MASK);
+    }
+
+    /**
+     * Whether the block at the given x and y index is empty. Blocks outside the grid are never empty.
+     * @param x column
+     * @param y row
+     * @return true if the block is inside the grid and empty
+     */
+    public boolean isEmpty(int x, int y) {
+        if(x < 0 || x >= cols || y < 0 || y >= rows) {
+            return false;
+        }
+        return (occupied[y * words + (x >>> 6)] & (1L << x)) == 0;
+    }
+
+    /**
+     * Whether every block in the given row is filled
+     * @param y row
+     * @return true if the row is full
+     */
+    public boolean isRowFull(int y) {
+        return rowCounts[y] == cols;
+    }
+
+    /**
+     * Whether every block in the given column is filled
+     * @param x column
+     * @return true if the column is full
+     */
+    public boolean isColumnFull(int x) {
+        return colCounts[x] == rows;
+    }
+
+    /**
+     * Get the number of filled blocks in the given row
+     * @param y row
+     * @return number of filled blocks
+     */
+    public int getRowCount(int y) {
+        return rowCounts[y];
+    }
+
+    /**
+     * Get the number of filled blocks in the given column
+     * @param x column
+     * @return number of filled blocks
+     */
+    public int getColumnCount(int x) {
+        return colCounts[x];
+    }
+
+    /**
+     * Get the number of filled blocks in the grid
+     * @return number of filled blocks
+     */
+    public int getFilledCount() {
+        return filled;
+    }
+
+    /**
+     * Get how full the grid is
+     * @return the share of blocks which are filled, from 0 to 1
+     */
+    public double getFillRatio() {
+        return (double) filled / (cols * rows);
+    }
+
+    /**
+     * Get the number of rows which are one block short of being full
+     * @return number of nearly full rows
+     */
+    public int getNearlyFullRows() {
+        return nearlyFullRows;
+    }
+
+    /**
+     * Get the number of columns which are one block short of being full
+     * @return number of nearly full columns
+     */
+    public int getNearlyFullColumns() {
+        return nearlyFullColumns;
+    }
+
+    /**
+     * Get the number of holes: empty blocks with a filled block or the edge of the grid on all four sides, which only a
+     * piece with a block on its own could fill. Only the rows around blocks changed since the last call are counted
+     * again, a word at a time.
+     * @return number of isolated empty blocks
+     */
+    public int getIsolatedCount() {
+        long previous = 0;
+        for(int i = 0; i < holesDirty.length; i++) {
+            //A change can make or fill holes in its own row and the rows either side
+            long changed = holesDirty[i];
+            long next = i + 1 < holesDirty.length ? holesDirty[i + 1] : 0;
+            long dirty = changed | (changed << 1) | (changed >>> 1) | (previous >>> 63) | (next << 63);
+            previous = changed;
+            holesDirty[i] = 0;
+            for(; dirty != 0; dirty &= dirty - 1) {
+                int y = i * Long.SIZE + Long.numberOfTrailingZeros(dirty);
+                if(y >= rows) break;
+                int count = 0;
+                for(int word = 0; word < words; word++) {
+                    count += Long.bitCount(holes(y, word));
+                }
+                isolated += count - rowHoles[y];
+                rowHoles[y] = count;
+            }
+        }
+        return isolated;
+    }
+
+    /**
+     * Get the number of blocks in the largest area of empty blocks joined up and down or side to side. This is
+     * worked out again the first time it is asked for after the grid changes, which takes time in proportion to the
+     * size of the grid.
+     * @return size of the largest empty region
+     */
+    public int getLargestEmptyRegion() {
+        if(regionDirty) {
+            largestEmptyRegion = findLargestEmptyRegion();
+            regionDirty = false;
+        }
+        return largestEmptyRegion;
+    }
+
+    /**
+     * Flood fill every empty region of the grid to find the largest
+     * @return size of the largest empty region
+     */
+    private int findLargestEmptyRegion() {
+        if(visited == null) {
+            visited = new long[occupied.length];
+            pending = new int[cols * rows];
+        }
+        System.arraycopy(occupied, 0, visited, 0, occupied.length);
+
+        int largest = 0;
+        for(int y = 0; y < rows; y++) {
+            for(int word = 0; word < words; word++) {
+                int index = y * words + word;
+                //Start a new region at every empty block not yet reached from an earlier one
+                for(long free = ~visited[index] & rangeWord(word, 0, cols - 1); free != 0;
+                        free = ~visited[index] & rangeWord(word, 0, cols - 1)) {
+                    int start = y * cols + word * Long.SIZE + Long.numberOfTrailingZeros(free);
+                    visited[index] |= Long.lowestOneBit(free);
+                    pending[0] = start;
+                    int waiting = 1;
+                    int size = 0;
+                    while(waiting > 0) {
+                        int cell = pending[--waiting];
+                        int cx = cell % cols;
+                        int cy = cell / cols;
+                        size++;
+                        if(cx > 0 && visit(cx - 1, cy)) pending[waiting++] = cell - 1;
+                        if(cx < cols - 1 && visit(cx + 1, cy)) pending[waiting++] = cell + 1;
+                        if(cy > 0 && visit(cx, cy - 1)) pending[waiting++] = cell - cols;
+                        if(cy < rows - 1 && visit(cx, cy + 1)) pending[waiting++] = cell + cols;
+                    }
+                    largest = Math.max(largest, size);
+                }
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Mark a block as visited by the flood fill
+     * @param x column
+     * @param y row
+     * @return true if the block had not been visited before and is empty
+     */
+    private boolean visit(int x, int y) {
+        int index = y * words + (x >>> 6);
+        long bit = 1L << x;
+        if((visited[index] & bit) != 0) return false;
+        visited[index] |= bit;
+        return true;
+    }
+
+    /**
+     * Get the Zobrist hash of the blocks in this grid. Two grids of the same size with the same blocks have the same
+     * hash, however they got there. It is updated as each block changes, so getting it costs nothing.
+     *
+     * @return hash of the blocks
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Get the number of columns in this game
+     * @return number of columns
+     */
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * Get the number of rows in this game
+     * @return number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns whether a piece can be played in a given position
+     *
+     * @param gamePiece A given GamePiece
+     * @param placeX X Coordinate
+     * @param placeY Y Coordinate
+     * @return Whether a piece cna be played (True/False)
+     */
+    public Boolean canPlayPiece(GamePiece gamePiece, int placeX, int placeY) {
+        //A piece is always played by a block on the grid, even if its centre block is empty
+        if (placeX < 0 || placeX >= cols || placeY < 0 || placeY >= rows) {
+            return false;
+        }
+
+        int size = gamePiece.getSize();
+        placeX -= gamePiece.getCentre();
+        placeY -= gamePiece.getCentre();
+
+        for (int y = 0; y < size; y++) {
+            int pieceRow = gamePiece.getRowMask(y);
+            if (pieceRow == 0) continue;
+            if ((rowBits(y + placeY, placeX, size) & pieceRow) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Find every position a piece can be played in, as a mask in the same layout as the grid: the bit for the centre
+     * (x, y) is bit (x % 64) of word (y * words + x / 64), where words is the number of longs per row. Use
+     * {@link #isLegal(long[], int, int)} to read it.
+     *
+     * @param gamePiece A given GamePiece
+     * @return mask of every centre the piece can be played at
+     */
+    public long[] legalPlacements(GamePiece gamePiece) {
+        long[] mask = new long[occupied.length];
+        legalPlacements(gamePiece, mask);
+        return mask;
+    }
+
+    /**
+     * Find every position a piece can be played in, writing the result into the given mask instead of allocating one.
+     * Each row of centres is found in one pass by shifting the occupied rows under the piece by each block's offset.
+     *
+     * @param gamePiece A given GamePiece
+     * @param mask array of at least rows * words longs to write the result to
+     * @return the number of positions the piece can be played at
+     */
+    public int legalPlacements(GamePiece gamePiece, long[] mask) {
+        int size = gamePiece.getSize();
+        int centre = gamePiece.getCentre();
+
+        //The columns a centre can be in without the piece leaving the grid
+        int lowX = Math.max(centre - gamePiece.getLeft(), 0);
+        int highX = Math.min(cols - 1 + centre - gamePiece.getRight(), cols - 1);
+
+        int count = 0;
+        for (int y = 0; y < rows; y++) {
+            int start = y * words;
+            Arrays.fill(mask, start, start + words, 0);
+
+            //Collect every centre in this row where a block of the piece would land on a filled block
+            boolean inside = true;
+            for (int dy = 0; dy < size && inside; dy++) {
+                int pieceRow = gamePiece.getRowMask(dy);
+                if (pieceRow == 0) continue;
+                int gridY = y + dy - centre;
+                if (gridY < 0 || gridY >= rows) {
+                    inside = false;
+                    break;
+                }
+                for (; pieceRow != 0; pieceRow &= pieceRow - 1) {
+                    orShifted(mask, start, gridY * words, Integer.numberOfTrailingZeros(pieceRow) - centre);
+                }
+            }
+
+            //Every other centre within range is legal
+            for (int word = 0; word < words; word++) {
+                long legal = inside ? ~mask[start + word] & rangeWord(word, lowX, highX) : 0;
+                mask[start + word] = legal;
+                count += Long.bitCount(legal);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Whether a piece can be played anywhere on the grid. Works like {@link #legalPlacements(GamePiece, long[])}, a
+     * word of centres at a time, but stops at the first word with a legal centre in it, so on all but the fullest
+     * grids it only looks at the first few rows.
+     *
+     * @param gamePiece A given GamePiece
+     * @return true if there is at least one position the piece can be played at
+     */
+    public boolean canPlayAnywhere(GamePiece gamePiece) {
+        int centre = gamePiece.getCentre();
+        int top = gamePiece.getTop();
+        int bottom = gamePiece.getBottom();
+
+        //The centres on the grid which keep the piece on the grid
+        int lowX = Math.max(centre - gamePiece.getLeft(), 0);
+        int highX = Math.min(cols - 1 + centre - gamePiece.getRight(), cols - 1);
+        int lowY = Math.max(centre - top, 0);
+        int highY = Math.min(rows - 1 + centre - bottom, rows - 1);
+        if (lowX > highX || lowY > highY) return false;
+
+        for (int y = lowY; y <= highY; y++) {
+            for (int word = lowX >>> 6; word <= highX >>> 6; word++) {
+                long range = rangeWord(word, lowX, highX);
+                long blocked = 0;
+                for (int dy = top; dy <= bottom && (~blocked & range) != 0; dy++) {
+                    int rowStart = (y + dy - centre) * words;
+                    for (int pieceRow = gamePiece.getRowMask(dy); pieceRow != 0; pieceRow &= pieceRow - 1) {
+                        blocked |= shiftedWord(rowStart, word, Integer.numberOfTrailingZeros(pieceRow) - centre);
+                    }
+                }
+                if ((~blocked & range) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the given centre is set in a mask produced by {@link #legalPlacements(GamePiece)}
+     *
+     * @param mask placement mask
+     * @param x column
+     * @param y row
+     * @return true if the piece can be played with its centre at x and y
+     */
+    public boolean isLegal(long[] mask, int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) return false;
+        return (mask[y * words + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * OR one occupied row into a mask row, shifted so that bit x of the result is bit (x + shift) of the source
+     *
+     * @param mask the mask to write to
+     * @param maskStart the first word of the row in the mask
+     * @param rowStart the first word of the row in the occupancy bits
+     * @param shift how far to shift, between -63 and 63
+     */
+    private void orShifted(long[] mask, int maskStart, int rowStart, int shift) {
+        for (int word = 0; word < words; word++) {
+            mask[maskStart + word] |= shiftedWord(rowStart, word, shift);
+        }
+    }
+
+    /**
+     * Get one word of an occupied row, shifted so that bit x of the result is bit (x + shift) of the row
+     *
+     * @param rowStart the first word of the row in the occupancy bits
+     * @param word index of the word within the row
+     * @param shift how far to shift, between -63 and 63
+     * @return the shifted word
+     */
+    private long shiftedWord(int rowStart, int word, int shift) {
+        long bits;
+        if (shift >= 0) {
+            bits = occupied[rowStart + word] >>> shift;
+            if (shift != 0 && word + 1 < words) bits |= occupied[rowStart + word + 1] << (Long.SIZE - shift);
+        } else {
+            bits = occupied[rowStart + word] << -shift;
+            if (word > 0) bits |= occupied[rowStart + word - 1] >>> (Long.SIZE + shift);
+        }
+        return bits;
+    }
+
+    /**
+     * The bits of one word of a row that fall within a range of columns
+     *
+     * @param word index of the word within a row
+     * @param low first column in the range
+     * @param high last column in the range
+     * @return bits set for the columns in range
+     */
+    private long rangeWord(int word, int low, int high) {
+        int first = Math.max(low - word * Long.SIZE, 0);
+        int last = Math.min(high - word * Long.SIZE, Long.SIZE - 1);
+        if (first > last) return 0;
+        long upTo = last == Long.SIZE - 1 ? -1L : (1L << (last + 1)) - 1;
+        return upTo & (-1L << first);
+    }
+
+    /**
+     * Get the occupancy of a run of blocks in a row, with bit 0 representing the block at column x. Blocks outside
+     * the grid are reported as occupied.
+     *
+     * @param y row
+     * @param x first column of the run
+     * @param length number of blocks in the run, at most 63
+     * @return occupancy bits of the run
+     */
+    long rowBits(int y, int x, int length) {
+        long run = (1L << length) - 1;
+        if (y < 0 || y >= rows) return run;
+
+        long bits = 0;
+        int start = y * words;
+        if (x < 0) {
+            //Columns left of the grid are occupied
+            bits = (1L << -x) - 1;
+            if (-x < length) bits |= occupied[start] << -x;
+        } else {
+            int word = x >>> 6;
+            int offset = x & 63;
+            if (word < words) {
+                bits = occupied[start + word] >>> offset;
+                if (offset != 0 && word + 1 < words) bits |= occupied[start + word + 1] << (Long.SIZE - offset);
+            }
+        }
+        //Columns right of the grid are occupied
+        if (x + length > cols) bits |= run & ~((1L << Math.max(cols - x, 0)) - 1);
+        return bits & run;
+    }
+
+    /**
+     * Plays a given GamePiece by its centre in a given position
+     *
+     * @param gamePiece A given GamePiece
+     * @param placeX X Coordinate
+     * @param placeY Y Coordinate
+     */
+    public void playPiece(GamePiece gamePiece, int placeX, int placeY) {
+        int size = gamePiece.getSize();
+        placeX -= gamePiece.getCentre();
+        placeY -= gamePiece.getCentre();
+        int value = gamePiece.getValue();
+
+        //Set a block for every bit in the piece's shape
+        beginTransaction();
+        try {
+            for(long blocks = gamePiece.getMask(); blocks != 0; blocks &= blocks - 1) {
+                int bit = Long.numberOfTrailingZeros(blocks);
+                set(bit % size + placeX, bit / size + placeY, value);
+            }
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * Get a copy of the packed block values, 4 bits per block in row order. This is the whole state of the grid, so
+     * it can be given back to restoreValues later.
+     *
+     * @return packed block values
+     */
+    public long[] copyValues() {
+        return values.clone();
+    }
+
+    /**
+     * Restore the grid from packed block values taken with copyValues. Whole words are compared first, so only the
+     * blocks which actually differ are set, and they are reported to the listener together.
+     *
+     * @param packed packed block values
+     */
+    public void restoreValues(long[] packed) {
+        if(packed.length != values.length) {
+            throw new IllegalArgumentException("Values are for a different size of grid");
+        }
+        beginTransaction();
+        try {
+            for(int word = 0; word < values.length; word++) {
+                long diff = values[word] ^ packed[word];
+                while(diff != 0) {
+                    int nibble = Long.numberOfTrailingZeros(diff) / VALUE_BITS;
+                    int index = word * 16 + nibble;
+                    set(index % cols, index / cols, (int) ((packed[word] >>> (nibble * VALUE_BITS)) & VALUE_MASK));
+                    diff &= ~(VALUE_MASK << (nibble * VALUE_BITS));
+                }
+            }
+        } finally {
+            endTransaction();
+        }
+    }
+
+    /**
+     * Make this grid match the grid in a snapshot, setting only the blocks which differ
+     *
+     * @param snapshot snapshot of a game with a grid the same size as this one
+     */
+    public void restore(GameSnapshot snapshot) {
+        restoreValues(snapshot.getValues());
+    }
+
+    /**
+     * Let blocks fall into cells which have just been cleared. Every block moves down its column by the number of
+     * cleared cells below it, just as the rows above a cleared row move down to take its place. The grid is worked
+     * through from the bottom 64 columns at a time: only blocks in columns with a cleared cell below are touched,
+     * and the rest of each row is skipped with a single AND.
+     *
+     * @param cleared the cells which were cleared, which must already be empty
+     * @param moves list to add every block that falls to
+     * @return the number of blocks which fell
+     */
+    public int collapse(CellSet cleared, MoveList moves) {
+        if(drops == null) {
+            drops = new int[cols];
+            falling = new long[words];
+        }
+
+        int moved = 0;
+        beginTransaction();
+        try {
+            for(int y = rows - 1; y >= 0; y--) {
+                for(int word = 0; word < words; word++) {
+                    int index = y * words + word;
+
+                    //Move down every block with a cleared cell somewhere below it
+                    for(long bits = occupied[index] & falling[word]; bits != 0; bits &= bits - 1) {
+                        int x = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                        int drop = drops[x];
+                        set(x, y + drop, get(x, y));
+                        set(x, y, 0);
+                        moves.add(x, y, x, y + drop);
+                        moved++;
+                    }
+
+                    //Blocks above a cleared cell fall one further
+                    long clearedBits = cleared.getWord(index);
+                    falling[word] |= clearedBits;
+                    for(; clearedBits != 0; clearedBits &= clearedBits - 1) {
+                        drops[word * Long.SIZE + Long.numberOfTrailingZeros(clearedBits)]++;
+                    }
+                }
+            }
+        } finally {
+            Arrays.fill(drops, 0);
+            Arrays.fill(falling, 0);
+            endTransaction();
+        }
+        return moved;
+    }
+
+    /**
+     * Clears the whole Grid
+     */
+    public void clearGrid() {
+        //Only the filled blocks need to change
+        beginTransaction();
+        try {
+            for(int y = 0; y < rows; y++) {
+                for(int word = 0; word < words; word++) {
+                    for(long bits = occupied[y * words + word]; bits != 0; bits &= bits - 1) {
+                        set(word * Long.SIZE + Long.numberOfTrailingZeros(bits), y, 0);
+                    }
+                }
+            }
+        } finally {
+            endTransaction();
+        }
+    }
+}
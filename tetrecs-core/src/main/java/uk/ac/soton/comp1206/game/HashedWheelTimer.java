@@ -0,0 +1,242 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A real-time GameClock which runs any number of timeouts from one thread. Time is cut into ticks, and a timeout due in a given
+ * tick is kept in the bucket of a wheel for that tick. The timer thread wakes once a tick and only looks at that
+ * tick's bucket.
+ *
+ * Each Timeout is a handle that can be scheduled, cancelled and scheduled again as often as needed. The buckets are
+ * linked lists threaded through the handles themselves, so scheduling and cancelling are O(1) and allocate nothing.
+ * Games share the one timer from {@link #shared()} rather than each starting a thread of their own.
+ */
+public class HashedWheelTimer implements GameClock {
+
+    private static final Logger logger = LogManager.getLogger(HashedWheelTimer.class);
+
+    /**
+     * The timer shared by every game, created when first needed
+     */
+    private static HashedWheelTimer shared;
+
+    /**
+     * Length of a tick in milliseconds
+     */
+    private final long tickMillis;
+
+    /**
+     * The buckets of the wheel, each the head of a list of timeouts. The number of buckets is a power of two.
+     */
+    private final WheelTimeout[] wheel;
+
+    /**
+     * When the timer was created, as System.nanoTime
+     */
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * The last tick the timer thread has processed
+     */
+    private long tick = 0;
+
+    /**
+     * The timer thread, started on first use
+     */
+    private Thread thread;
+
+    /**
+     * Get the timer shared by every game. It runs on a daemon thread with 10ms ticks.
+     *
+     * @return the shared timer
+     */
+    public static synchronized HashedWheelTimer shared() {
+        if (shared == null) {
+            shared = new HashedWheelTimer(10, 512);
+        }
+        return shared;
+    }
+
+    /**
+     * Create a new timer
+     *
+     * @param tickMillis length of a tick in milliseconds
+     * @param buckets number of buckets in the wheel, rounded up to a power of two
+     */
+    public HashedWheelTimer(long tickMillis, int buckets) {
+        this.tickMillis = tickMillis;
+        this.wheel = new WheelTimeout[Integer.highestOneBit(Math.max(buckets, 1) * 2 - 1)];
+    }
+
+    /**
+     * Get the time since the timer was created
+     *
+     * @return time in milliseconds
+     */
+    @Override
+    public long now() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Create a new handle which runs the given task on the timer thread each time it expires. The task should be
+     * quick, such as handing the real work to another thread.
+     *
+     * @param task the task
+     * @return an unscheduled timeout
+     */
+    @Override
+    public Timeout newTimeout(Runnable task) {
+        return new WheelTimeout(task);
+    }
+
+    /**
+     * Start the timer thread if it is not running. Must hold the timer's lock.
+     */
+    private void ensureStarted() {
+        if (thread == null) {
+            //Start from the current time rather than catching up on the ticks from before the thread existed
+            tick = now() / tickMillis;
+            thread = new Thread(this::run, "game-timer");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Process each tick once its time has come
+     */
+    private void run() {
+        while (true) {
+            long wait;
+            synchronized (this) {
+                wait = (tick + 1) * tickMillis - now();
+            }
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            //Unlink every expired timeout in this tick's bucket into a list of its own, then run them outside the lock
+            WheelTimeout expired = null;
+            synchronized (this) {
+                tick++;
+                WheelTimeout timeout = wheel[(int) (tick & (wheel.length - 1))];
+                while (timeout != null) {
+                    WheelTimeout next = timeout.next;
+                    if (timeout.deadlineTick <= tick) {
+                        timeout.unlink();
+                        timeout.nextExpired = expired;
+                        expired = timeout;
+                    }
+                    timeout = next;
+                }
+            }
+            while (expired != null) {
+                WheelTimeout next = expired.nextExpired;
+                expired.nextExpired = null;
+                //Catch everything, as this one thread runs the timeouts of every game
+                try {
+                    expired.task.run();
+                } catch (Throwable e) {
+                    logger.error("Timeout task failed", e);
+                }
+                expired = next;
+            }
+        }
+    }
+
+    /**
+     * A timeout on the wheel
+     */
+    private final class WheelTimeout implements Timeout {
+
+        /**
+         * What to run when the timeout expires
+         */
+        private final Runnable task;
+
+        /**
+         * The neighbours of this timeout in its bucket
+         */
+        private WheelTimeout prev;
+        private WheelTimeout next;
+
+        /**
+         * The next timeout in the list of those expiring in the same tick
+         */
+        private WheelTimeout nextExpired;
+
+        /**
+         * The tick this timeout expires in
+         */
+        private long deadlineTick;
+
+        /**
+         * The bucket this timeout is in, or -1 if it is not scheduled
+         */
+        private int bucket = -1;
+
+        /**
+         * Create a new timeout handle
+         *
+         * @param task what to run
+         */
+        private WheelTimeout(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public long schedule(long delayMillis) {
+            synchronized (HashedWheelTimer.this) {
+                ensureStarted();
+                unlink();
+                long deadline = now() + Math.max(delayMillis, 0);
+                deadlineTick = Math.max((deadline + tickMillis - 1) / tickMillis, tick + 1);
+                bucket = (int) (deadlineTick & (wheel.length - 1));
+                next = wheel[bucket];
+                if (next != null) {
+                    next.prev = this;
+                }
+                wheel[bucket] = this;
+                return deadline;
+            }
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (HashedWheelTimer.this) {
+                unlink();
+            }
+        }
+
+        @Override
+        public boolean isScheduled() {
+            synchronized (HashedWheelTimer.this) {
+                return bucket >= 0;
+            }
+        }
+
+        /**
+         * Take this timeout out of its bucket. Must hold the timer's lock.
+         */
+        private void unlink() {
+            if (bucket < 0) return;
+            if (prev != null) {
+                prev.next = next;
+            } else {
+                wheel[bucket] = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            prev = null;
+            next = null;
+            bucket = -1;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.Arrays;
+
+/**
+ * A list of blocks which have moved on a grid, each from the cell it started in to the cell it ended up in. If a block
+ * which has already moved moves again, its move is extended rather than a second one added, so each block appears in
+ * the list at most once. Moves are held in plain int arrays, so a MoveList can be filled and cleared over and over
+ * without creating any objects once it has grown.
+ */
+public class MoveList {
+
+    /**
+     * Number of columns
+     */
+    private final int cols;
+
+    /**
+     * Number of rows
+     */
+    private final int rows;
+
+    /**
+     * The cell each move starts from, as y * cols + x
+     */
+    private int[] from = new int[16];
+
+    /**
+     * The cell each move ends at, as y * cols + x
+     */
+    private int[] to = new int[16];
+
+    /**
+     * Number of moves in the list
+     */
+    private int size = 0;
+
+    /**
+     * For each cell, one more than the index of the move ending there, or 0 if none does. Created when first needed.
+     */
+    private int[] endingAt;
+
+    /**
+     * Create a new, empty MoveList for a grid of the given size
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public MoveList(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+    }
+
+    /**
+     * Create a copy of another MoveList
+     * @param other the list to copy
+     */
+    public MoveList(MoveList other) {
+        this.cols = other.cols;
+        this.rows = other.rows;
+        this.from = Arrays.copyOf(other.from, Math.max(other.size, 1));
+        this.to = Arrays.copyOf(other.to, Math.max(other.size, 1));
+        this.size = other.size;
+    }
+
+    /**
+     * Record a block moving between two cells
+     * @param fromX column the block moved from
+     * @param fromY row the block moved from
+     * @param toX column the block moved to
+     * @param toY row the block moved to
+     */
+    public void add(int fromX, int fromY, int toX, int toY) {
+        if (endingAt == null) {
+            endingAt = new int[cols * rows];
+            for (int i = 0; i < size; i++) {
+                endingAt[to[i]] = i + 1;
+            }
+        }
+        int start = fromY * cols + fromX;
+        int end = toY * cols + toX;
+
+        //Extend the move of a block which has already moved
+        int index = endingAt[start] - 1;
+        if (index >= 0) {
+            endingAt[start] = 0;
+        } else {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+            }
+            index = size++;
+            from[index] = start;
+        }
+        to[index] = end;
+        endingAt[end] = index + 1;
+    }
+
+    /**
+     * Remove the move of the block which ended up in the given cell, such as when that block is cleared
+     * @param x column
+     * @param y row
+     */
+    public void remove(int x, int y) {
+        int cell = y * cols + x;
+        int index = endingAt == null ? -1 : endingAt[cell] - 1;
+        if (index < 0) return;
+        endingAt[cell] = 0;
+
+        //Fill the gap with the last move
+        int last = --size;
+        if (index != last) {
+            from[index] = from[last];
+            to[index] = to[last];
+            endingAt[to[index]] = index + 1;
+        }
+    }
+
+    /**
+     * Remove every move from the list
+     */
+    public void clear() {
+        if (endingAt != null) {
+            for (int i = 0; i < size; i++) {
+                endingAt[to[i]] = 0;
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * Get the number of moves in the list
+     * @return number of moves
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether the list has no moves
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the column a move starts from
+     * @param index index of the move
+     * @return column
+     */
+    public int getFromX(int index) {
+        return from[index] % cols;
+    }
+
+    /**
+     * Get the row a move starts from
+     * @param index index of the move
+     * @return row
+     */
+    public int getFromY(int index) {
+        return from[index] / cols;
+    }
+
+    /**
+     * Get the column a move ends at
+     * @param index index of the move
+     * @return column
+     */
+    public int getToX(int index) {
+        return to[index] % cols;
+    }
+
+    /**
+     * Get the row a move ends at
+     * @param index index of the move
+     * @return row
+     */
+    public int getToY(int index) {
+        return to[index] / cols;
+    }
+
+    /**
+     * Return the moves as a string, for debugging
+     * @return the moves
+     */
+    public String toString() {
+        StringBuilder builder = new StringBuilder("MoveList [");
+        for (int i = 0; i < size; i++) {
+            builder.append(" (").append(getFromX(i)).append(", ").append(getFromY(i)).append(") -> (")
+                    .append(getToX(i)).append(", ").append(getToY(i)).append(')');
+        }
+        return builder.append(" ]").toString();
+    }
+}
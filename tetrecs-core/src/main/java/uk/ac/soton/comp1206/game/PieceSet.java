@@ -0,0 +1,351 @@
+package uk.ac.soton.comp1206.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * A PieceSet is the collection of pieces a game is played with, read from a text file. Each piece is its name on one
+ * line followed by the rows of its shape, X for a block and . for a space, with a blank line between pieces. Lines
+ * starting with # are comments. Shapes are square, up to {@link #MAX_SIZE} blocks wide, and are placed and rotated
+ * about their centre.
+ *
+ * Every rotation of every piece is worked out when the set is loaded. Rotations which give the same shape are only
+ * kept once, so a piece has one, two or four rotations, and a piece which is a rotation of one already in the set is
+ * left out, wherever its blocks sit in its square. The standard set is the exception: the multiplayer server deals its
+ * pieces by number, so it keeps every piece, including Corner and Inverse Corner which are rotations of each other.
+ */
+public class PieceSet {
+
+    private static final Logger logger = LogManager.getLogger(PieceSet.class);
+
+    /**
+     * The largest width and height of a piece, so its shape fits in a long
+     */
+    public static final int MAX_SIZE = 8;
+
+    /**
+     * The most pieces a set can have, so a piece number fits in a byte
+     */
+    public static final int MAX_PIECES = 256;
+
+    /**
+     * The number of distinct values a block can have, not counting empty
+     */
+    private static final int VALUES = 15;
+
+    /**
+     * Holds the standard set, loaded when first needed
+     */
+    private static final class Standard {
+        private static final PieceSet SET = load("standard.pieces", false);
+    }
+
+    /**
+     * The name of this set
+     */
+    private final String name;
+
+    /**
+     * The shared instance of every piece in every distinct rotation, indexed by piece number then rotation
+     */
+    private final GamePiece[][] pieces;
+
+    /**
+     * The largest width and height of any piece in the set
+     */
+    private final int maxSize;
+
+    /**
+     * Get the standard set of 15 pieces
+     *
+     * @return the standard set
+     */
+    public static PieceSet standard() {
+        return Standard.SET;
+    }
+
+    /**
+     * Load a piece set from a resource next to this class, such as "standard.pieces" or "pentominoes.pieces"
+     *
+     * @param resource name of the resource
+     * @return the piece set
+     */
+    public static PieceSet load(String resource) {
+        return load(resource, true);
+    }
+
+    /**
+     * Load a piece set from a resource next to this class
+     *
+     * @param resource name of the resource
+     * @param removeDuplicates whether to leave out pieces which are rotations of earlier ones
+     * @return the piece set
+     */
+    private static PieceSet load(String resource, boolean removeDuplicates) {
+        InputStream stream = PieceSet.class.getResourceAsStream(resource);
+        if (stream == null) {
+            throw new IllegalArgumentException("No such piece set: " + resource);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            return read(resource, reader, removeDuplicates);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load piece set " + resource, e);
+        }
+    }
+
+    /**
+     * Read a piece set
+     *
+     * @param name name of the set
+     * @param reader where to read the pieces from
+     * @return the piece set
+     * @throws IOException if reading fails or a piece is not valid
+     */
+    public static PieceSet read(String name, BufferedReader reader) throws IOException {
+        return read(name, reader, true);
+    }
+
+    /**
+     * Read a piece set
+     *
+     * @param name name of the set
+     * @param reader where to read the pieces from
+     * @param removeDuplicates whether to leave out pieces which are rotations of earlier ones
+     * @return the piece set
+     * @throws IOException if reading fails or a piece is not valid
+     */
+    private static PieceSet read(String name, BufferedReader reader, boolean removeDuplicates) throws IOException {
+        List<String> names = new ArrayList<>();
+        List<String[]> shapes = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        String pieceName = null;
+        String line;
+        do {
+            line = reader.readLine();
+            if (line != null && line.startsWith("#")) continue;
+            if (line == null || line.isBlank()) {
+                //A blank line ends the piece being read
+                if (pieceName != null) {
+                    names.add(pieceName);
+                    shapes.add(rows.toArray(new String[0]));
+                    rows.clear();
+                    pieceName = null;
+                }
+            } else if (pieceName == null) {
+                pieceName = line.strip();
+            } else {
+                rows.add(line.strip());
+            }
+        } while (line != null);
+
+        if (names.isEmpty()) {
+            throw new IOException("No pieces in " + name);
+        }
+        return new PieceSet(name, names, shapes, removeDuplicates);
+    }
+
+    /**
+     * Build every rotation of every piece
+     *
+     * @param name name of the set
+     * @param names the name of each piece
+     * @param shapes the rows of each piece's shape
+     * @param removeDuplicates whether to leave out pieces which are rotations of earlier ones
+     * @throws IOException if a shape is not valid
+     */
+    private PieceSet(String name, List<String> names, List<String[]> shapes, boolean removeDuplicates)
+            throws IOException {
+        this.name = name;
+        List<GamePiece[]> built = new ArrayList<>();
+        HashSet<Long> canonical = new HashSet<>();
+        int largest = 0;
+
+        for (int i = 0; i < names.size(); i++) {
+            String pieceName = names.get(i);
+            String[] shape = shapes.get(i);
+            int size = shape.length;
+            long mask = parseShape(pieceName, shape);
+
+            //Rotate until the shape comes back round to find its distinct rotations
+            long[] rotations = new long[GamePiece.ROTATIONS];
+            int count = 0;
+            long rotated = mask;
+            do {
+                rotations[count++] = rotated;
+                rotated = rotateMask(rotated, size);
+            } while (rotated != mask);
+
+            //The canonical form is the smallest rotation, moved into the corner of an 8x8 square so pieces of any size
+            //and wherever they sit in their square compare
+            long form = Long.MAX_VALUE;
+            for (int r = 0; r < count; r++) {
+                form = Math.min(form, normalised(rotations[r], size));
+            }
+            if (!canonical.add(form) && removeDuplicates) {
+                logger.warn("Piece {} in {} is a rotation of an earlier piece, leaving it out", pieceName, name);
+                continue;
+            }
+
+            int piece = built.size();
+            GamePiece[] table = new GamePiece[count];
+            for (int r = 0; r < count; r++) {
+                table[r] = new GamePiece(pieceName, piece, r, size, rotations[r], piece % VALUES + 1, table);
+            }
+            built.add(table);
+            largest = Math.max(largest, size);
+        }
+        if (built.size() > MAX_PIECES) {
+            throw new IOException(name + " has " + built.size() + " pieces, more than " + MAX_PIECES);
+        }
+        this.pieces = built.toArray(new GamePiece[0][]);
+        this.maxSize = largest;
+        logger.info("Loaded {} pieces from {}", pieces.length, name);
+    }
+
+    /**
+     * Turn the rows of a shape into a mask, with bit (y * size + x) set for every block
+     *
+     * @param pieceName name of the piece, for errors
+     * @param shape rows of the shape
+     * @return shape mask
+     * @throws IOException if the shape is not valid
+     */
+    private static long parseShape(String pieceName, String[] shape) throws IOException {
+        int size = shape.length;
+        if (size == 0 || size > MAX_SIZE) {
+            throw new IOException("Piece " + pieceName + " must be between 1 and " + MAX_SIZE + " rows");
+        }
+        long mask = 0;
+        for (int y = 0; y < size; y++) {
+            if (shape[y].length() != size) {
+                throw new IOException("Piece " + pieceName + " is not square");
+            }
+            for (int x = 0; x < size; x++) {
+                char block = shape[y].charAt(x);
+                if (block == 'X') {
+                    mask |= 1L << (y * size + x);
+                } else if (block != '.') {
+                    throw new IOException("Piece " + pieceName + " has unexpected character '" + block + "'");
+                }
+            }
+        }
+        if (mask == 0) {
+            throw new IOException("Piece " + pieceName + " has no blocks");
+        }
+        return mask;
+    }
+
+    /**
+     * Rotate a shape mask clockwise once. The block at (x, y) moves to (size - 1 - y, x).
+     *
+     * @param mask shape to rotate
+     * @param size width and height of the shape
+     * @return the rotated shape
+     */
+    private static long rotateMask(long mask, int size) {
+        long rotated = 0;
+        for (; mask != 0; mask &= mask - 1) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            int x = bit % size;
+            int y = bit / size;
+            rotated |= 1L << (x * size + (size - 1 - y));
+        }
+        return rotated;
+    }
+
+    /**
+     * Move a shape into the top left corner of an 8x8 square, so its top row and left column both have blocks in them
+     *
+     * @param mask shape to move
+     * @param size width and height of the shape
+     * @return the shape in the 8x8 square
+     */
+    private static long normalised(long mask, int size) {
+        int left = size;
+        int top = Long.numberOfTrailingZeros(mask) / size;
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            left = Math.min(left, Long.numberOfTrailingZeros(bits) % size);
+        }
+        long moved = 0;
+        for (; mask != 0; mask &= mask - 1) {
+            int bit = Long.numberOfTrailingZeros(mask);
+            moved |= 1L << ((bit / size - top) * MAX_SIZE + bit % size - left);
+        }
+        return moved;
+    }
+
+    /**
+     * Get a piece in the given rotation
+     *
+     * @param piece piece number
+     * @param rotation number of times to rotate
+     * @return the piece
+     */
+    public GamePiece get(int piece, int rotation) {
+        if (piece < 0 || piece >= pieces.length) {
+            //Not a valid piece number
+            throw new IndexOutOfBoundsException("No such piece: " + piece);
+        }
+        GamePiece[] rotations = pieces[piece];
+        return rotations[Math.floorMod(rotation, rotations.length)];
+    }
+
+    /**
+     * Get the number of distinct rotations of a piece
+     *
+     * @param piece piece number
+     * @return number of rotations
+     */
+    public int getRotations(int piece) {
+        if (piece < 0 || piece >= pieces.length) {
+            throw new IndexOutOfBoundsException("No such piece: " + piece);
+        }
+        return pieces[piece].length;
+    }
+
+    /**
+     * Get the number of pieces in the set
+     *
+     * @return number of pieces
+     */
+    public int size() {
+        return pieces.length;
+    }
+
+    /**
+     * Get the largest width and height of any piece in the set
+     *
+     * @return largest piece size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get the name of this set
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the string representation of this set
+     *
+     * @return the name of this set
+     */
+    public String toString() {
+        return name;
+    }
+}
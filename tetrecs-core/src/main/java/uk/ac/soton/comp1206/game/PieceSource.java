@@ -0,0 +1,14 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * A PieceSource decides which pieces a Game is given to play, as a sequence of piece numbers
+ */
+public interface PieceSource {
+
+    /**
+     * Get the number of the next piece to play
+     *
+     * @return piece number, from 0 to one less than the size of the game's {@link PieceSet}
+     */
+    int next();
+}
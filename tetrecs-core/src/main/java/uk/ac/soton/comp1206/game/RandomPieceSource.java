@@ -0,0 +1,41 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * A PieceSource which picks every piece uniformly at random from a seeded generator
+ */
+public class RandomPieceSource extends BufferedPieceSource {
+
+    private final SplittableRandom random;
+
+    /**
+     * The number of pieces to pick from
+     */
+    private final int pieces;
+
+    /**
+     * Create a new source of random pieces from the standard set
+     *
+     * @param seed seed for the sequence of pieces
+     */
+    public RandomPieceSource(long seed) {
+        this(seed, GamePiece.PIECES);
+    }
+
+    /**
+     * Create a new source of random pieces
+     *
+     * @param seed seed for the sequence of pieces
+     * @param pieces the number of pieces to pick from
+     */
+    public RandomPieceSource(long seed, int pieces) {
+        this.random = new SplittableRandom(seed);
+        this.pieces = checkPieces(pieces);
+    }
+
+    @Override
+    protected int generate() {
+        return random.nextInt(pieces);
+    }
+}
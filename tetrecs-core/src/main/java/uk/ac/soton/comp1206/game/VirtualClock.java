@@ -0,0 +1,125 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.ArrayList;
+
+/**
+ * A GameClock which only moves when it is advanced. Timeouts which fall due are run on the thread advancing the
+ * clock, in order of their deadlines, with the clock set to each deadline as it is run. A 12 second turn timer can be
+ * run out in a single call, and the same calls always give the same results.
+ */
+public class VirtualClock implements GameClock {
+
+    /**
+     * The current time
+     */
+    private long now;
+
+    /**
+     * Every timeout created by this clock, in the order they were created
+     */
+    private final ArrayList<VirtualTimeout> timeouts = new ArrayList<>();
+
+    /**
+     * Create a new virtual clock starting at time 0
+     */
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Create a new virtual clock starting at the given time
+     *
+     * @param start the starting time in milliseconds
+     */
+    public VirtualClock(long start) {
+        this.now = start;
+    }
+
+    @Override
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public Timeout newTimeout(Runnable task) {
+        VirtualTimeout timeout = new VirtualTimeout(task);
+        timeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Move the clock forward, running every timeout that falls due on the way. Timeouts scheduled by those tasks
+     * are run too if they fall due before the end.
+     *
+     * @param millis how far to move the clock
+     */
+    public void advance(long millis) {
+        long target = now + millis;
+        VirtualTimeout next;
+        while ((next = nextDue(target)) != null) {
+            now = next.deadline;
+            next.scheduled = false;
+            next.task.run();
+        }
+        now = target;
+    }
+
+    /**
+     * Move the clock to the next scheduled timeout and run it
+     *
+     * @return false if nothing was scheduled
+     */
+    public boolean advanceToNext() {
+        VirtualTimeout next = nextDue(Long.MAX_VALUE);
+        if (next == null) return false;
+        advance(next.deadline - now);
+        return true;
+    }
+
+    /**
+     * Find the earliest timeout due by the given time, taking the first created if deadlines are equal
+     *
+     * @param limit the latest deadline to consider
+     * @return the timeout, or null if none is due
+     */
+    private VirtualTimeout nextDue(long limit) {
+        VirtualTimeout earliest = null;
+        for (VirtualTimeout timeout : timeouts) {
+            if (timeout.scheduled && timeout.deadline <= limit
+                    && (earliest == null || timeout.deadline < earliest.deadline)) {
+                earliest = timeout;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * A timeout on the virtual clock
+     */
+    private class VirtualTimeout implements Timeout {
+        private final Runnable task;
+        private long deadline;
+        private boolean scheduled;
+
+        VirtualTimeout(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public long schedule(long delayMillis) {
+            deadline = now + Math.max(delayMillis, 0);
+            scheduled = true;
+            return deadline;
+        }
+
+        @Override
+        public void cancel() {
+            scheduled = false;
+        }
+
+        @Override
+        public boolean isScheduled() {
+            return scheduled;
+        }
+    }
+}
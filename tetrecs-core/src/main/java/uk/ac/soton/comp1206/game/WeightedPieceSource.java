@@ -0,0 +1,73 @@
+package uk.ac.soton.comp1206.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * A PieceSource which picks pieces at random with a given weight for each piece. Uses Vose's alias method, so each
+ * piece is picked in constant time whatever the number of pieces.
+ */
+public class WeightedPieceSource extends BufferedPieceSource {
+
+    private final SplittableRandom random;
+
+    /**
+     * The chance of keeping the piece for each column of the alias table
+     */
+    private final double[] probability;
+
+    /**
+     * The piece to use instead for each column of the alias table
+     */
+    private final int[] alias;
+
+    /**
+     * Create a new source of weighted pieces
+     *
+     * @param seed seed for the sequence of pieces
+     * @param weights the relative weight of each piece, one per piece number in the game's piece set
+     */
+    public WeightedPieceSource(long seed, double[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("Expected a weight for every piece");
+        }
+        this.random = new SplittableRandom(seed);
+
+        int count = checkPieces(weights.length);
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) throw new IllegalArgumentException("Weights must not be negative");
+            total += weight;
+        }
+        if (total <= 0) throw new IllegalArgumentException("Weights must not all be zero");
+
+        //Scale so the average weight is 1, then pair each light column with a heavy one
+        probability = new double[count];
+        alias = new int[count];
+        double[] scaled = new double[count];
+        int[] small = new int[count];
+        int[] large = new int[count];
+        int smallSize = 0, largeSize = 0;
+        for (int i = 0; i < count; i++) {
+            scaled[i] = weights[i] * count / total;
+            if (scaled[i] < 1) small[smallSize++] = i;
+            else large[largeSize++] = i;
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) small[smallSize++] = more;
+            else large[largeSize++] = more;
+        }
+        while (largeSize > 0) probability[large[--largeSize]] = 1;
+        while (smallSize > 0) probability[small[--smallSize]] = 1;
+    }
+
+    @Override
+    protected int generate() {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+}
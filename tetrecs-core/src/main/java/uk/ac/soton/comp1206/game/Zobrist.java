@@ -0,0 +1,58 @@
+package uk.ac.soton.comp1206.game;
+
+/**
+ * The random keys used to hash the state of a game. Every block value at every cell, and every piece in every rotation
+ * as the current or following piece, has its own 64 bit key, and the hash of a state is all of its keys XORed
+ * together. Changing one block only needs its old key XORed out and its new key XORed in.
+ *
+ * Rather than a table of random numbers, each key is made by scrambling its position with a fixed mixing function.
+ * This needs no memory however large the grid is, and every client works out the same keys, so hashes can be compared
+ * between them.
+ */
+final class Zobrist {
+
+    /**
+     * Keys for pieces are taken from after the keys of every block of the largest grid, so the two never meet
+     */
+    private static final long PIECES = 1L << 40;
+
+    private Zobrist() {
+    }
+
+    /**
+     * Get the key of a block value at a cell. Empty cells have no key.
+     *
+     * @param index the cell, as y * cols + x
+     * @param value the value of the block, from 0 to 15
+     * @return key
+     */
+    static long cell(int index, int value) {
+        return value == 0 ? 0 : mix(((long) index << 4) | value);
+    }
+
+    /**
+     * Get the key of a piece in its rotation, as either the current or the following piece
+     *
+     * @param piece the piece, or null for none
+     * @param following true for the following piece, false for the current one
+     * @return key
+     */
+    static long piece(GamePiece piece, boolean following) {
+        if (piece == null) return 0;
+        long position = (long) piece.getPiece() * GamePiece.ROTATIONS + piece.getRotation();
+        return mix(PIECES + (position << 1) + (following ? 1 : 0));
+    }
+
+    /**
+     * Scramble a number so that every bit of the result depends on every bit of the input
+     *
+     * @param z the number to scramble
+     * @return the scrambled number
+     */
+    private static long mix(long z) {
+        z = (z + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
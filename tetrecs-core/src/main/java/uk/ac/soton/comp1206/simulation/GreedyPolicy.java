@@ -0,0 +1,87 @@
+package uk.ac.soton.comp1206.simulation;
+
+import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+
+/**
+ * A Policy which tries every rotation of both the current and following piece at every legal position, and plays
+ * the one which completes the most lines. Ties are broken in favour of positions in the most filled rows and columns.
+ */
+public class GreedyPolicy implements Policy {
+
+    /**
+     * Placement mask, reused between turns
+     */
+    private long[] mask;
+
+    @Override
+    public boolean playTurn(Game game) {
+        Grid grid = game.getGrid();
+        if (mask == null) mask = new long[grid.legalPlacements(game.getCurrentPiece()).length];
+
+        int bestValue = -1, bestX = 0, bestY = 0, bestRotation = 0;
+        boolean bestSwap = false;
+        for (int swap = 0; swap < 2; swap++) {
+            GamePiece piece = swap == 0 ? game.getCurrentPiece() : game.getFollowingPiece();
+            for (int rotation = 0; rotation < piece.getRotations(); rotation++) {
+                GamePiece rotated = piece.rotate(rotation);
+                if (grid.legalPlacements(rotated, mask) == 0) continue;
+                for (int y = 0; y < grid.getRows(); y++) {
+                    for (int x = 0; x < grid.getCols(); x++) {
+                        if (!grid.isLegal(mask, x, y)) continue;
+                        int value = evaluate(grid, rotated, x, y);
+                        if (value > bestValue) {
+                            bestValue = value;
+                            bestX = x;
+                            bestY = y;
+                            bestRotation = rotation;
+                            bestSwap = swap == 1;
+                        }
+                    }
+                }
+            }
+        }
+        if (bestValue < 0) return false;
+
+        if (bestSwap) game.swapCurrentPiece();
+        game.rotateCurrentPiece(bestRotation);
+        return game.blockClicked(bestX, bestY);
+    }
+
+    /**
+     * Score playing a piece at a position without playing it
+     *
+     * @param grid the grid
+     * @param piece the piece
+     * @param placeX centre column
+     * @param placeY centre row
+     * @return a higher value for better positions
+     */
+    private int evaluate(Grid grid, GamePiece piece, int placeX, int placeY) {
+        int lines = 0;
+        int filled = 0;
+        int size = piece.getSize();
+        int left = placeX - piece.getCentre();
+        int top = placeY - piece.getCentre();
+        for (int d = 0; d < size; d++) {
+            //Blocks the piece adds to row (top + d) and column (left + d)
+            int rowBlocks = Integer.bitCount(piece.getRowMask(d));
+            int colBlocks = 0;
+            for (int dy = 0; dy < size; dy++) {
+                if (piece.isFilled(d, dy)) colBlocks++;
+            }
+            if (rowBlocks > 0) {
+                int count = grid.getRowCount(top + d) + rowBlocks;
+                if (count == grid.getCols()) lines++;
+                filled += count;
+            }
+            if (colBlocks > 0) {
+                int count = grid.getColumnCount(left + d) + colBlocks;
+                if (count == grid.getRows()) lines++;
+                filled += count;
+            }
+        }
+        return lines * 1000 + filled;
+    }
+}
@@ -0,0 +1,17 @@
+package uk.ac.soton.comp1206.simulation;
+
+import uk.ac.soton.comp1206.game.Game;
+
+/**
+ * A Policy decides how to play each turn of a simulated game, standing in for the player
+ */
+public interface Policy {
+
+    /**
+     * Play one turn of the game, by rotating or swapping pieces and then playing a piece if one fits
+     *
+     * @param game the game to play
+     * @return true if a piece was played, false to let the turn run out
+     */
+    boolean playTurn(Game game);
+}
@@ -0,0 +1,50 @@
+package uk.ac.soton.comp1206.simulation;
+
+import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.Grid;
+
+import java.util.SplittableRandom;
+
+/**
+ * A Policy which rotates the current piece a random number of times and plays it at a random legal position
+ */
+public class RandomPolicy implements Policy {
+
+    private final SplittableRandom random;
+
+    /**
+     * Placement mask, reused between turns
+     */
+    private long[] mask;
+
+    /**
+     * Create a new random policy
+     *
+     * @param seed seed for the random choices
+     */
+    public RandomPolicy(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public boolean playTurn(Game game) {
+        Grid grid = game.getGrid();
+        if (mask == null) mask = new long[grid.legalPlacements(game.getCurrentPiece()).length];
+
+        game.rotateCurrentPiece(random.nextInt(GamePiece.ROTATIONS));
+        int legal = grid.legalPlacements(game.getCurrentPiece(), mask);
+        if (legal == 0) return false;
+
+        //Walk to the chosen legal position
+        int choice = random.nextInt(legal);
+        for (int y = 0; y < grid.getRows(); y++) {
+            for (int x = 0; x < grid.getCols(); x++) {
+                if (grid.isLegal(mask, x, y) && choice-- == 0) {
+                    return game.blockClicked(x, y);
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,129 @@
+package uk.ac.soton.comp1206.simulation;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The results of a batch of simulated games: the final score, level, lines cleared and number of turns of each game,
+ * indexed by game number so results do not depend on which thread played which game.
+ */
+public class SimulationResult {
+
+    /**
+     * Names of the recorded metrics, in the order they are written out
+     */
+    private static final String[] METRICS = {"score", "level", "lines", "turns"};
+
+    private final int[][] values;
+
+    /**
+     * Create an empty result for the given number of games
+     *
+     * @param games number of games
+     */
+    public SimulationResult(int games) {
+        values = new int[METRICS.length][games];
+    }
+
+    /**
+     * Record the outcome of a single game
+     *
+     * @param game game number
+     * @param score final score
+     * @param level final level
+     * @param lines lines cleared
+     * @param turns turns played
+     */
+    public void record(int game, int score, int level, int lines, int turns) {
+        values[0][game] = score;
+        values[1][game] = level;
+        values[2][game] = lines;
+        values[3][game] = turns;
+    }
+
+    /**
+     * Get the number of games in this result
+     *
+     * @return number of games
+     */
+    public int getGames() {
+        return values[0].length;
+    }
+
+    /**
+     * Write one line per game as CSV
+     *
+     * @param path file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCsv(Path path) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+            writer.println("game," + String.join(",", METRICS));
+            for (int game = 0; game < getGames(); game++) {
+                writer.print(game);
+                for (int[] metric : values) {
+                    writer.print(',');
+                    writer.print(metric[game]);
+                }
+                writer.println();
+            }
+        }
+    }
+
+    /**
+     * Write the distribution of each metric as JSON
+     *
+     * @param path file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeJson(Path path) throws IOException {
+        Files.writeString(path, toJson());
+    }
+
+    /**
+     * Get the distribution of each metric as JSON: the minimum, maximum, mean, standard deviation and percentiles.
+     *
+     * @return JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"games\": ").append(getGames());
+        for (int metric = 0; metric < METRICS.length; metric++) {
+            int[] sorted = values[metric].clone();
+            Arrays.sort(sorted);
+            double mean = 0;
+            for (int value : sorted) mean += value;
+            mean /= Math.max(sorted.length, 1);
+            double variance = 0;
+            for (int value : sorted) variance += (value - mean) * (value - mean);
+            variance /= Math.max(sorted.length, 1);
+
+            json.append(",\n  \"").append(METRICS[metric]).append("\": {")
+                    .append("\"min\": ").append(percentile(sorted, 0))
+                    .append(", \"p10\": ").append(percentile(sorted, 10))
+                    .append(", \"p50\": ").append(percentile(sorted, 50))
+                    .append(", \"p90\": ").append(percentile(sorted, 90))
+                    .append(", \"p99\": ").append(percentile(sorted, 99))
+                    .append(", \"max\": ").append(percentile(sorted, 100))
+                    .append(String.format(Locale.ROOT, ", \"mean\": %.3f, \"stddev\": %.3f}", mean,
+                            Math.sqrt(variance)));
+        }
+        return json.append("\n}\n").toString();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     *
+     * @param sorted sorted values
+     * @param percent percentile from 0 to 100
+     * @return the value at that percentile, or 0 if there are no values
+     */
+    private static int percentile(int[] sorted, int percent) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.min(Math.max(rank - 1, 0), sorted.length - 1)];
+    }
+}
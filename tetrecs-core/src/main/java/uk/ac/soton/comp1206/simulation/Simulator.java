@@ -0,0 +1,306 @@
+package uk.ac.soton.comp1206.simulation;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.BagPieceSource;
+import uk.ac.soton.comp1206.game.ClearRule;
+import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.PieceSet;
+import uk.ac.soton.comp1206.game.PieceSource;
+import uk.ac.soton.comp1206.game.RandomPieceSource;
+import uk.ac.soton.comp1206.game.VirtualClock;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.LongFunction;
+
+/**
+ * The Simulator plays complete games without a user interface, with a Policy standing in for the player. Games are
+ * spread across threads with a fork/join pool. Each game is seeded by scrambling the batch seed with its game number,
+ * so a batch gives the same results whatever the number of threads, and no two games share a stretch of random
+ * numbers.
+ */
+public class Simulator {
+
+    private static final Logger logger = LogManager.getLogger(Simulator.class);
+
+    /**
+     * Games per task before a batch stops being split
+     */
+    private static final int BATCH = 16;
+
+    private final int cols;
+    private final int rows;
+    private final int games;
+    private final long seed;
+    private final int threads;
+    private final int maxTurns;
+
+    /**
+     * Creates the policy for each game, given that game's seed
+     */
+    private final LongFunction<Policy> policies;
+
+    /**
+     * Creates the piece source for each game, given that game's seed
+     */
+    private final LongFunction<PieceSource> pieceSources;
+
+    /**
+     * The pieces the piece sources' numbers refer to
+     */
+    private final PieceSet pieceSet;
+
+    /**
+     * Shapes cleared in every game as well as full rows and columns
+     */
+    private final List<ClearRule> clearRules = new ArrayList<>();
+
+    /**
+     * Whether every game is played with gravity
+     */
+    private boolean gravity = false;
+
+    /**
+     * Create a new simulator playing with the standard pieces
+     *
+     * @param cols number of columns of each game
+     * @param rows number of rows of each game
+     * @param games number of games to play
+     * @param seed seed for the whole batch
+     * @param threads number of threads to play on
+     * @param maxTurns turns after which a game is stopped if it has not ended
+     * @param policies creates the policy for each game from its seed
+     * @param pieceSources creates the piece source for each game from its seed
+     */
+    public Simulator(int cols, int rows, int games, long seed, int threads, int maxTurns,
+                     LongFunction<Policy> policies, LongFunction<PieceSource> pieceSources) {
+        this(cols, rows, games, seed, threads, maxTurns, policies, pieceSources, PieceSet.standard());
+    }
+
+    /**
+     * Create a new simulator
+     *
+     * @param cols number of columns of each game
+     * @param rows number of rows of each game
+     * @param games number of games to play
+     * @param seed seed for the whole batch
+     * @param threads number of threads to play on
+     * @param maxTurns turns after which a game is stopped if it has not ended
+     * @param policies creates the policy for each game from its seed
+     * @param pieceSources creates the piece source for each game from its seed
+     * @param pieceSet the pieces to play with
+     */
+    public Simulator(int cols, int rows, int games, long seed, int threads, int maxTurns,
+                     LongFunction<Policy> policies, LongFunction<PieceSource> pieceSources, PieceSet pieceSet) {
+        this.cols = cols;
+        this.rows = rows;
+        this.games = games;
+        this.seed = seed;
+        this.threads = threads;
+        this.maxTurns = maxTurns;
+        this.policies = policies;
+        this.pieceSources = pieceSources;
+        this.pieceSet = pieceSet;
+    }
+
+    /**
+     * Add a shape to be cleared in every game whenever it is filled
+     *
+     * @param clearRule the rule to add
+     */
+    public void addClearRule(ClearRule clearRule) {
+        clearRules.add(clearRule);
+    }
+
+    /**
+     * Play every game with gravity, so blocks fall into the cells left by a clear
+     *
+     * @param gravity true for gravity
+     */
+    public void setGravity(boolean gravity) {
+        this.gravity = gravity;
+    }
+
+    /**
+     * Play every game and collect the results
+     *
+     * @return the results of every game
+     */
+    public SimulationResult run() {
+        logger.info("Simulating {} games on {} threads", games, threads);
+        SimulationResult result = new SimulationResult(games);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new Batch(result, 0, games));
+        } finally {
+            pool.shutdown();
+        }
+        return result;
+    }
+
+    /**
+     * Play a single game to the end, or until it reaches the turn limit
+     *
+     * @param index game number
+     * @param result where to record the outcome
+     */
+    private void play(int index, SimulationResult result) {
+        long gameSeed = mix(mix(seed) + index);
+        Game game = new Game(cols, rows, pieceSources.apply(gameSeed), pieceSet);
+        //Nothing is undone in a simulation, so skip taking snapshots
+        game.setHistoryLimit(0);
+        clearRules.forEach(game::addClearRule);
+        game.setGravity(gravity);
+        Policy policy = policies.apply(mix(gameSeed));
+
+        //Run the turn timer on a virtual clock, so a turn which runs out costs no real time
+        VirtualClock clock = new VirtualClock();
+        game.setClock(clock);
+        game.start();
+        int turns = 0;
+        while (!game.isOver() && turns < maxTurns) {
+            if (policy.playTurn(game)) {
+                game.restartLoop();
+            } else {
+                clock.advance(game.getTimerDelay());
+            }
+            turns++;
+        }
+        game.endGame();
+        result.record(index, game.getScore(), game.getLevel(), game.getLinesCleared(), turns);
+    }
+
+    /**
+     * Scramble a number so that every bit of the result depends on every bit of the input. Seeds which differ by a
+     * fixed step would give generators running the same sequence a few numbers apart, so every seed is scrambled first.
+     *
+     * @param z the number to scramble
+     * @return the scrambled number
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A range of games, split in half until it is small enough to play directly
+     */
+    private class Batch extends RecursiveAction {
+        private final SimulationResult result;
+        private final int start;
+        private final int end;
+
+        Batch(SimulationResult result, int start, int end) {
+            this.result = result;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= BATCH) {
+                for (int index = start; index < end; index++) {
+                    play(index, result);
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new Batch(result, start, middle), new Batch(result, middle, end));
+            }
+        }
+    }
+
+    /**
+     * Run a simulation from the command line.
+     * <p>
+     * Options: --simulate N (number of games), --board COLSxROWS, --seed S, --threads T, --policy greedy|random, --pieces random|bag,
+     * --piece-set standard|pentominoes, --rules square:N,diagonal:N,anti-diagonal:N (extra shapes to clear),
+     * --gravity true|false, --max-turns M, --csv FILE (one line per game), --json FILE (distributions). The distributions are printed if no
+     * JSON file is given.
+     *
+     * @param args commandline arguments
+     * @throws IOException if a result file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int games = 1000;
+        int cols = 5;
+        int rows = 5;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxTurns = 10000;
+        String policy = "greedy";
+        String pieces = "random";
+        String pieceSetName = "standard";
+        String rules = "";
+        boolean gravity = false;
+        Path csv = null;
+        Path json = null;
+
+        for (int i = 0; i + 1 < args.length; i++) {
+            switch (args[i]) {
+                case "--simulate" -> games = Integer.parseInt(args[++i]);
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--board" -> {
+                    String[] size = args[++i].toLowerCase().split("x");
+                    cols = Integer.parseInt(size[0]);
+                    rows = Integer.parseInt(size[1]);
+                }
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--max-turns" -> maxTurns = Integer.parseInt(args[++i]);
+                case "--policy" -> policy = args[++i];
+                case "--pieces" -> pieces = args[++i];
+                case "--piece-set" -> pieceSetName = args[++i];
+                case "--rules" -> rules = args[++i];
+                case "--gravity" -> gravity = Boolean.parseBoolean(args[++i]);
+                case "--csv" -> csv = Path.of(args[++i]);
+                case "--json" -> json = Path.of(args[++i]);
+            }
+        }
+
+        LongFunction<Policy> policies = switch (policy) {
+            case "greedy" -> gameSeed -> new GreedyPolicy();
+            case "random" -> RandomPolicy::new;
+            default -> throw new IllegalArgumentException("No such policy: " + policy);
+        };
+        PieceSet pieceSet = pieceSetName.equals("standard")
+                ? PieceSet.standard()
+                : PieceSet.load(pieceSetName + ".pieces");
+        int count = pieceSet.size();
+        LongFunction<PieceSource> pieceSources = switch (pieces) {
+            case "random" -> gameSeed -> new RandomPieceSource(gameSeed, count);
+            case "bag" -> gameSeed -> new BagPieceSource(gameSeed, count);
+            default -> throw new IllegalArgumentException("No such piece source: " + pieces);
+        };
+
+        Simulator simulator = new Simulator(cols, rows, games, seed, threads, maxTurns, policies, pieceSources,
+                pieceSet);
+        simulator.setGravity(gravity);
+        for (String rule : rules.split(",")) {
+            if (rule.isBlank()) continue;
+            String[] parts = rule.split(":");
+            int size = parts.length > 1 ? Integer.parseInt(parts[1]) : 3;
+            simulator.addClearRule(switch (parts[0]) {
+                case "square" -> ClearRule.square(size);
+                case "diagonal" -> ClearRule.diagonal(size);
+                case "anti-diagonal" -> ClearRule.antiDiagonal(size);
+                default -> throw new IllegalArgumentException("No such clear rule: " + parts[0]);
+            });
+        }
+
+        long started = System.nanoTime();
+        SimulationResult result = simulator.run();
+        logger.info("Simulated {} games in {} ms", games, (System.nanoTime() - started) / 1_000_000);
+
+        if (csv != null) result.writeCsv(csv);
+        if (json != null) {
+            result.writeJson(json);
+        } else {
+            System.out.print(result.toJson());
+        }
+    }
+}
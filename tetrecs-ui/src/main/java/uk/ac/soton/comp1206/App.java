@@ -27,12 +27,13 @@ public class App extends Application {
     private Stage stage;
 
     /**
-     * Start the game
+     * Start the game. Pass --board=COLSxROWS to play single player games on a larger board, and --gravity=true to
+     * have blocks fall into the gaps left by cleared lines.
      * @param args commandline arguments
      */
     public static void main(String[] args) {
         logger.info("Starting client");
-        launch();
+        launch(args);
     }
 
     /**
@@ -57,10 +58,44 @@ public class App extends Application {
         //Change the width and height in this class to change the base rendering resolution for all game parts
         var gameWindow = new GameWindow(stage,width,height);
 
+        //Use a custom board size if one was given on the commandline
+        String board = getParameters().getNamed().get("board");
+        if (board != null) {
+            int[] size = parseBoardSize(board);
+            if (size != null) {
+                gameWindow.setBoardSize(size[0], size[1]);
+                logger.info("Using a {} board", board);
+            } else {
+                logger.warn("Ignoring board size {}, expected COLSxROWS such as 10x8", board);
+            }
+        }
+        if (Boolean.parseBoolean(getParameters().getNamed().get("gravity"))) {
+            gameWindow.setGravity(true);
+            logger.info("Playing with gravity");
+        }
+
         //Display the GameWindow
         stage.show();
     }
 
+    /**
+     * Parse a board size given as COLSxROWS
+     * @param board the size from the commandline
+     * @return the columns and rows, or null if they are not two positive whole numbers
+     */
+    private static int[] parseBoardSize(String board) {
+        String[] size = board.toLowerCase().split("x", -1);
+        if (size.length != 2) return null;
+        try {
+            int cols = Integer.parseInt(size[0].trim());
+            int rows = Integer.parseInt(size[1].trim());
+            if (cols <= 0 || rows <= 0) return null;
+            return new int[]{cols, rows};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     /**
      * Shutdown the game
      */
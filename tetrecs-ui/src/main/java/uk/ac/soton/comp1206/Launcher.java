@@ -0,0 +1,30 @@
+package uk.ac.soton.comp1206;
+
+import uk.ac.soton.comp1206.simulation.Simulator;
+
+import java.util.Arrays;
+
+/**
+ * This Launcher class is used to allow the game to be built into a shaded jar file which then loads JavaFX. This
+ * Launcher is used when running as a shaded jar file.
+ *
+ * Passing --simulate N plays N games headless through the Simulator instead, without starting JavaFX.
+ */
+public class Launcher {
+
+    /**
+     * Launch the JavaFX Application, passing through the commandline arguments
+     * @param args commandline arguments
+     * @throws Exception if a simulation fails to write its results
+     */
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--simulate")) {
+            //Only warnings and errors, as every game would otherwise log every turn
+            System.setProperty("tetrecs.log.level", "warn");
+            Simulator.main(args);
+            return;
+        }
+        App.main(args);
+    }
+
+}
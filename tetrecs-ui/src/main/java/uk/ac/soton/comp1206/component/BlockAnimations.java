@@ -0,0 +1,260 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.animation.AnimationTimer;
+import javafx.animation.Interpolator;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Drives every animation on a GameBoard from one AnimationTimer: the white flash of cleared blocks fading out, and
+ * blocks falling into place with gravity.
+ *
+ * The state of each effect is kept in plain arrays with one entry per block, and the blocks with an effect running
+ * are kept in a list of block indices. Each pulse moves every running effect on, repaints the blocks it touches and
+ * draws the board once. A finished effect is swapped out of the list, and the timer stops when the list is empty, so
+ * starting and finishing effects never creates any objects.
+ */
+class BlockAnimations extends AnimationTimer {
+
+    /**
+     * How much the flash of a fading block dims each pulse
+     */
+    private static final double FADE_STEP = 0.05;
+
+    /**
+     * How long a block takes to fall one row, in milliseconds
+     */
+    private static final double FALL_MILLIS = 120;
+
+    /**
+     * The board being animated
+     */
+    private final GameBoard board;
+
+    /**
+     * Number of columns
+     */
+    private final int cols;
+
+    /**
+     * The height of a block, in pixels
+     */
+    private final double blockHeight;
+
+    /**
+     * The opacity of the flash on each block, or 0 when it is not fading
+     */
+    private final double[] fade;
+
+    /**
+     * For each falling block, the number of rows it falls, how long the fall takes in nanoseconds, when it started,
+     * and how far above its square it is now drawn in pixels. The start is -1 until the first pulse after the fall
+     * begins, and the rows are 0 when the block is not falling.
+     */
+    private final int[] fallRows;
+    private final long[] fallNanos;
+    private final long[] fallStart;
+    private final double[] fallOffset;
+
+    /**
+     * The blocks with an effect running, as y * cols + x
+     */
+    private final int[] active;
+
+    /**
+     * For each block, one more than its position in the active list, or 0 if it has no effect running
+     */
+    private final int[] activeAt;
+
+    /**
+     * Number of blocks with an effect running
+     */
+    private int activeCount = 0;
+
+    /**
+     * Whether the timer is running
+     */
+    private boolean running = false;
+
+    /**
+     * Create the animations for a board
+     *
+     * @param board the board to animate
+     * @param cols number of columns
+     * @param rows number of rows
+     * @param blockHeight the height of a block, in pixels
+     */
+    BlockAnimations(GameBoard board, int cols, int rows, double blockHeight) {
+        this.board = board;
+        this.cols = cols;
+        this.blockHeight = blockHeight;
+        int blocks = cols * rows;
+        fade = new double[blocks];
+        fallRows = new int[blocks];
+        fallNanos = new long[blocks];
+        fallStart = new long[blocks];
+        fallOffset = new double[blocks];
+        active = new int[blocks];
+        activeAt = new int[blocks];
+    }
+
+    /**
+     * Flash a block white and fade it out, stopping any fall on it
+     *
+     * @param x column
+     * @param y row
+     */
+    void fadeOut(int x, int y) {
+        int cell = y * cols + x;
+        land(cell);
+        fade[cell] = 1;
+        activate(cell);
+    }
+
+    /**
+     * Animate a block falling into place from a number of rows above, replacing any fade or fall on it
+     *
+     * @param x column
+     * @param y row
+     * @param rows number of rows fallen
+     */
+    void fall(int x, int y, int rows) {
+        int cell = y * cols + x;
+        land(cell);
+        fade[cell] = 0;
+        rows = Math.min(rows, y);
+        if (rows <= 0) {
+            board.repaint(x, y);
+            return;
+        }
+        fallRows[cell] = rows;
+        fallNanos[cell] = (long) (FALL_MILLIS * Math.sqrt(rows) * 1e6);
+        fallStart[cell] = -1;
+        fallOffset[cell] = rows * blockHeight;
+        activate(cell);
+    }
+
+    /**
+     * Get the opacity of the flash on a block
+     *
+     * @param x column
+     * @param y row
+     * @return opacity, or 0 if it is not fading
+     */
+    double getFade(int x, int y) {
+        return fade[y * cols + x];
+    }
+
+    /**
+     * Whether a block is still falling, in which case it is drawn above its square rather than in it
+     *
+     * @param x column
+     * @param y row
+     * @return true if falling
+     */
+    boolean isFalling(int x, int y) {
+        return fallRows[y * cols + x] > 0;
+    }
+
+    /**
+     * Draw every falling block where it has got to, on top of the blocks it is passing
+     *
+     * @param gc the board's graphics context
+     * @param sprites the sprites for the board's size of block
+     * @param blocks the blocks of the board
+     */
+    void drawFalling(GraphicsContext gc, BlockSprites sprites, GameBlock[][] blocks) {
+        for (int i = 0; i < activeCount; i++) {
+            int cell = active[i];
+            if (fallRows[cell] > 0) {
+                blocks[cell % cols][cell / cols].drawFalling(gc, sprites, fallOffset[cell]);
+            }
+        }
+    }
+
+    /**
+     * Move every running effect on by one pulse
+     *
+     * @param now the time of the pulse, in nanoseconds
+     */
+    @Override
+    public void handle(long now) {
+        board.beginRepaint();
+        //Work backwards, so a finished effect can be swapped for the last one in the list
+        for (int i = activeCount - 1; i >= 0; i--) {
+            int cell = active[i];
+            int x = cell % cols;
+            int y = cell / cols;
+
+            if (fade[cell] > 0) {
+                fade[cell] = Math.max(fade[cell] - FADE_STEP, 0);
+                board.repaint(x, y);
+            }
+
+            if (fallRows[cell] > 0) {
+                if (fallStart[cell] < 0) fallStart[cell] = now;
+                double progress = (double) (now - fallStart[cell]) / fallNanos[cell];
+                if (progress >= 1) {
+                    land(cell);
+                } else {
+                    fallOffset[cell] = fallRows[cell] * blockHeight
+                            * (1 - Interpolator.EASE_IN.interpolate(0.0, 1.0, progress));
+                    board.repaintColumn(x, y - fallRows[cell], y);
+                }
+            }
+
+            if (fade[cell] == 0 && fallRows[cell] == 0) {
+                retire(i);
+            }
+        }
+        board.endRepaint();
+
+        if (activeCount == 0) {
+            stop();
+            running = false;
+        }
+    }
+
+    /**
+     * Put a falling block back in its own square, repainting the blocks it was falling past
+     *
+     * @param cell the block
+     */
+    private void land(int cell) {
+        int rows = fallRows[cell];
+        if (rows == 0) return;
+        fallRows[cell] = 0;
+        fallOffset[cell] = 0;
+        int x = cell % cols;
+        int y = cell / cols;
+        board.repaintColumn(x, y - rows, y);
+    }
+
+    /**
+     * Add a block to the active list, if it is not already there, and start the timer if it is not running
+     *
+     * @param cell the block
+     */
+    private void activate(int cell) {
+        if (activeAt[cell] == 0) {
+            active[activeCount] = cell;
+            activeAt[cell] = ++activeCount;
+        }
+        if (!running) {
+            running = true;
+            start();
+        }
+    }
+
+    /**
+     * Remove a block from the active list by moving the last block into its place
+     *
+     * @param index position of the block in the list
+     */
+    private void retire(int index) {
+        int cell = active[index];
+        int last = active[--activeCount];
+        active[index] = last;
+        activeAt[last] = index + 1;
+        activeAt[cell] = 0;
+    }
+}
@@ -0,0 +1,231 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
+import javafx.scene.transform.Transform;
+import javafx.stage.Screen;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+
+/**
+ * A sprite atlas holding every look a block can have at one size, so painting a block is a single drawImage rather
+ * than a fill, a border and the shading drawn from scratch.
+ *
+ * There is a sprite for every colour in {@link GameBlock#COLOURS}, each with and without the centre dot, the hover
+ * highlight and the keyboard cursor. They are drawn once onto a canvas and copied into one image. Atlases are shared
+ * by every board with the same block size, and a new one is built the first time a block size is used.
+ */
+class BlockSprites {
+
+    private static final Logger logger = LogManager.getLogger(BlockSprites.class);
+
+    /**
+     * Variant flag for the centre dot
+     */
+    static final int CENTRE = 1;
+
+    /**
+     * Variant flag for the hover highlight
+     */
+    static final int HOVER = 2;
+
+    /**
+     * Variant flag for the keyboard cursor
+     */
+    static final int CURSOR = 4;
+
+    /**
+     * The number of variants of each colour, one for every combination of the flags
+     */
+    private static final int VARIANTS = 8;
+
+    /**
+     * The fill of an empty block
+     */
+    private static final Color EMPTY = Color.web("BLACK", 0.5);
+
+    /**
+     * Every atlas built so far, one for each block size
+     */
+    private static final ArrayList<BlockSprites> atlases = new ArrayList<>();
+
+    /**
+     * The width and height of a block
+     */
+    private final double width;
+    private final double height;
+
+    /**
+     * The distance between sprites in the atlas, a whole number of pixels with a gap so sprites do not run together
+     */
+    private final double pitchX;
+    private final double pitchY;
+
+    /**
+     * The number of image pixels to each screen pixel, so sprites stay sharp on high resolution screens
+     */
+    private final double scale;
+
+    /**
+     * The atlas: colours across, variants down
+     */
+    private final WritableImage image;
+
+    /**
+     * Get the atlas for blocks of the given size, building it if no board has used that size before. Must be called
+     * on the JavaFX thread.
+     *
+     * @param width width of a block
+     * @param height height of a block
+     * @return the atlas
+     */
+    static BlockSprites forSize(double width, double height) {
+        for (BlockSprites atlas : atlases) {
+            if (atlas.width == width && atlas.height == height) {
+                return atlas;
+            }
+        }
+        BlockSprites atlas = new BlockSprites(width, height);
+        atlases.add(atlas);
+        return atlas;
+    }
+
+    /**
+     * Build an atlas by drawing every sprite onto a canvas and taking a snapshot of it
+     *
+     * @param width width of a block
+     * @param height height of a block
+     */
+    private BlockSprites(double width, double height) {
+        this.width = width;
+        this.height = height;
+        this.pitchX = Math.ceil(width) + 1;
+        this.pitchY = Math.ceil(height) + 1;
+        this.scale = Screen.getPrimary().getOutputScaleX();
+
+        var canvas = new Canvas(pitchX * GameBlock.COLOURS.length, pitchY * VARIANTS);
+        var gc = canvas.getGraphicsContext2D();
+        for (int value = 0; value < GameBlock.COLOURS.length; value++) {
+            for (int variant = 0; variant < VARIANTS; variant++) {
+                double left = value * pitchX;
+                double top = variant * pitchY;
+
+                //Keep each sprite inside its own square, so borders do not spill onto the next one
+                gc.save();
+                gc.beginPath();
+                gc.rect(left, top, width, height);
+                gc.clip();
+                paintSprite(gc, left, top, value, variant);
+                gc.restore();
+            }
+        }
+
+        var parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        parameters.setTransform(Transform.scale(scale, scale));
+        image = canvas.snapshot(parameters, null);
+        logger.info("Built block sprites for {} x {}", width, height);
+    }
+
+    /**
+     * Draw one sprite
+     *
+     * @param gc the atlas canvas
+     * @param left left edge of the sprite
+     * @param top top edge of the sprite
+     * @param value the block value, choosing its colour
+     * @param variant which of the centre dot, hover highlight and cursor to draw
+     */
+    private void paintSprite(GraphicsContext gc, double left, double top, int value, int variant) {
+        //If the block is empty, paint as empty
+        if (value == 0) {
+            paintEmpty(gc, left, top);
+        } else {
+            //If the block is not empty, paint with the colour represented by the value
+            paintColor(gc, left, top, GameBlock.COLOURS[value]);
+        }
+        if ((variant & CENTRE) != 0) {
+            // Paint center dot
+            gc.setStroke(Color.GREY);
+            gc.fillOval(left + width / 4, top + height / 4, width / 2, height / 2);
+        }
+        // Paint hover effect
+        if ((variant & HOVER) != 0) {
+            gc.setFill(Color.rgb(204, 204, 204, 0.4));
+            gc.fillRect(left, top, width, height);
+        }
+        if ((variant & CURSOR) != 0) {
+            //Border
+            gc.setStroke(Color.WHITE);
+            gc.strokeRect(left, top, width, height);
+            if (value == 0) {
+                gc.setFill(Color.WHITE.deriveColor(0, 0, 1, 0.7));
+                gc.fillRect(left, top, width, height);
+            }
+        }
+    }
+
+    /**
+     * Paint an empty block
+     *
+     * @param gc the atlas canvas
+     * @param left left edge of the sprite
+     * @param top top edge of the sprite
+     */
+    private void paintEmpty(GraphicsContext gc, double left, double top) {
+        //Fill
+        gc.setFill(EMPTY);
+        gc.fillRect(left, top, width, height);
+
+        //Border
+        gc.setStroke(Color.GREY);
+        gc.strokeRect(left, top, width, height);
+    }
+
+    /**
+     * Paint a block with the given colour
+     *
+     * @param gc the atlas canvas
+     * @param left left edge of the sprite
+     * @param top top edge of the sprite
+     * @param colour the colour to paint
+     */
+    private void paintColor(GraphicsContext gc, double left, double top, Paint colour) {
+        //Colour fill
+        gc.setFill(colour);
+        gc.fillRect(left, top, width, height);
+
+        //Border
+        gc.setStroke(Color.BLACK);
+        gc.strokeRect(left, top, width, height);
+
+        // Creates 3D effect on piece
+        gc.setFill(Color.rgb(59, 59, 59, 0.2));
+        gc.fillPolygon(new double[]{left, left, left + width}, new double[]{top, top + height, top + height}, 3);
+        gc.setFill(Color.rgb(161, 161, 161, 0.3));
+        gc.fillRect(left, top, 3, height);
+        gc.setFill(Color.rgb(255, 255, 255, 0.3));
+        gc.fillRect(left, top, width, 3);
+    }
+
+    /**
+     * Draw a block from the atlas. The square is cleared first, as sprites are partly see-through.
+     *
+     * @param gc where to draw
+     * @param left left edge of the block
+     * @param top top edge of the block
+     * @param value the block value
+     * @param variant any of {@link #CENTRE}, {@link #HOVER} and {@link #CURSOR} combined
+     */
+    void draw(GraphicsContext gc, double left, double top, int value, int variant) {
+        gc.clearRect(left, top, width, height);
+        gc.drawImage(image, value * pitchX * scale, variant * pitchY * scale, width * scale, height * scale,
+                left, top, width, height);
+    }
+}
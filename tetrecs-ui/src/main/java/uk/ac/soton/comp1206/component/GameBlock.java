@@ -0,0 +1,232 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * The Visual User Interface component representing a single block in the grid.
+
+ * A GameBlock is not a node of its own. It holds how the block should look and draws itself into its square of the
+ * GameBoard's canvas whenever the board repaints it, copying the right sprite from the board's BlockSprites. Any change
+ * to a block asks the board to repaint it, and only the blocks which have changed are drawn again. Fades and falls
+ * are run for the whole board by its BlockAnimations, which tells the block how to draw itself each frame.
+
+ * Displays an empty square (when the value is 0) or a coloured square depending on value.
+
+ * The GameBlock value is kept up to date by the GameBoard from the corresponding block in the Grid model.
+ */
+public class GameBlock {
+
+    /**
+     * The set of colours for different pieces
+     */
+    public static final Color[] COLOURS = {
+            Color.TRANSPARENT,
+            Color.DEEPPINK,
+            Color.RED,
+            Color.ORANGE,
+            Color.YELLOW,
+            Color.YELLOWGREEN,
+            Color.LIME,
+            Color.GREEN,
+            Color.DARKGREEN,
+            Color.DARKTURQUOISE,
+            Color.DEEPSKYBLUE,
+            Color.AQUA,
+            Color.AQUAMARINE,
+            Color.BLUE,
+            Color.MEDIUMPURPLE,
+            Color.PURPLE
+    };
+
+    private final GameBoard gameBoard;
+
+    private final double width;
+    private final double height;
+
+    /**
+     * The column this block exists as in the grid
+     */
+    private final int x;
+
+    /**
+     * The row this block exists as in the grid
+     */
+    private final int y;
+
+    /**
+     * The value of this block (0 = empty, otherwise specifies the colour to render as)
+     */
+    private int value = 0;
+
+    private boolean center = false;
+
+    private boolean hover = false;
+
+    /**
+     * Whether the keyboard cursor is on this block
+     */
+    private boolean cursor = false;
+
+    /**
+     * Create a new single Game Block
+     * @param gameBoard the board this block belongs to
+     * @param x the column the block exists in
+     * @param y the row the block exists in
+     * @param width the width of the block to render
+     * @param height the height of the block to render
+     */
+    public GameBlock(GameBoard gameBoard, int x, int y, double width, double height) {
+        this.gameBoard = gameBoard;
+        this.width = width;
+        this.height = height;
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Ask the board to repaint this block
+     */
+    public void paint() {
+        gameBoard.repaint(x, y);
+    }
+
+    /**
+     * Draw this block into its square of the board's canvas. While it is falling its square is drawn empty, and the
+     * board draws the block itself on top of the blocks it falls past with
+     * {@link #drawFalling(GraphicsContext, BlockSprites, double)}.
+     * @param gc the board's graphics context
+     * @param sprites the sprites for this size of block
+     * @param fade the opacity of the white flash over the block, or 0 if it is not fading
+     * @param falling whether the block is falling
+     */
+    void draw(GraphicsContext gc, BlockSprites sprites, double fade, boolean falling) {
+        double left = x * width;
+        double top = y * height;
+        if (falling) {
+            sprites.draw(gc, left, top, 0, 0);
+        } else {
+            paintBlock(gc, sprites, left, top, fade);
+        }
+    }
+
+    /**
+     * Draw this block where it has got to while falling
+     * @param gc the board's graphics context
+     * @param sprites the sprites for this size of block
+     * @param offset how far above its square to draw it, in pixels
+     */
+    void drawFalling(GraphicsContext gc, BlockSprites sprites, double offset) {
+        paintBlock(gc, sprites, x * width, y * height - offset, 0);
+    }
+
+    /**
+     * Paint the block with everything currently shown on it
+     * @param gc the board's graphics context
+     * @param sprites the sprites for this size of block
+     * @param left left edge of the square
+     * @param top top edge of the square
+     * @param fade the opacity of the white flash over the block
+     */
+    private void paintBlock(GraphicsContext gc, BlockSprites sprites, double left, double top, double fade) {
+        //A block fading out shows a white flash over an empty square
+        if (fade > 0) {
+            sprites.draw(gc, left, top, 0, 0);
+            gc.setGlobalAlpha(fade);
+            gc.setFill(Color.WHITE);
+            gc.fillRect(left, top, width, height);
+            gc.setGlobalAlpha(1);
+            return;
+        }
+
+        int variant = 0;
+        if (center) variant |= BlockSprites.CENTRE;
+        if (hover) variant |= BlockSprites.HOVER;
+        if (cursor) variant |= BlockSprites.CURSOR;
+        sprites.draw(gc, left, top, value, variant);
+    }
+
+    /**
+     * Get the column of this block
+     * @return column number
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Get the row of this block
+     * @return row number
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Get the current value held by this block, representing it's colour
+     * @return value
+     */
+    public int getValue() {
+        return this.value;
+    }
+
+    /**
+     * Set the value of this block, repainting it if it has changed
+     * @param value the new value
+     */
+    public void setValue(int value) {
+        if (this.value != value) {
+            this.value = value;
+            paint();
+        }
+    }
+
+    public void paintCursor() {
+        this.cursor = true;
+        paint();
+    }
+
+    public void resetCursor() {
+        this.cursor = false;
+        paint();
+    }
+
+    public void center() {
+        this.center = true;
+        paint();
+    }
+
+    /**
+     * Remove the centre dot
+     */
+    public void resetCentre() {
+        this.center = false;
+        paint();
+    }
+
+    /**
+     * Hover effect
+     * @param hover true if mouse is over board
+     */
+    public void hover(boolean hover) {
+        this.hover = hover;
+        paint();
+    }
+
+
+    /**
+     * Animate this block falling into place from a number of rows above, replacing any fade on it
+     * @param rows number of rows fallen
+     */
+    public void fall(int rows) {
+        gameBoard.getAnimations().fall(x, y, rows);
+    }
+
+    /**
+     * Flash this block white and fade it out
+     */
+    public void fadeOut() {
+        gameBoard.getAnimations().fadeOut(x, y);
+    }
+
+}
@@ -0,0 +1,437 @@
+package uk.ac.soton.comp1206.component;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.StackPane;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import uk.ac.soton.comp1206.game.CellSet;
+import uk.ac.soton.comp1206.game.GamePiece;
+import uk.ac.soton.comp1206.game.GameSnapshot;
+import uk.ac.soton.comp1206.game.Grid;
+import uk.ac.soton.comp1206.game.MoveList;
+
+/**
+ * A GameBoard is a visual component to represent the visual GameBoard.
+ * It draws a grid of GameBlocks onto a single Canvas. When blocks change they are marked dirty, and only their squares
+ * of the canvas are drawn again, so a board is two nodes however many blocks it has.
+ * <p>
+ * The GameBoard can hold an internal grid of its own, for example, for displaying an upcoming block. It also be
+ * linked to an external grid, for the main game board.
+ * <p>
+ * The GameBoard is only a visual representation and should not contain game logic or model logic in it, which should
+ * take place in the Grid.
+ */
+public class GameBoard extends StackPane {
+
+    private static final Logger logger = LogManager.getLogger(GameBoard.class);
+
+    /**
+     * Number of columns in the board
+     */
+    private final int cols;
+
+    /**
+     * Number of rows in the board
+     */
+    private final int rows;
+
+    /**
+     * The visual width of the board - has to be specified due to being a Canvas
+     */
+    private final double width;
+
+    /**
+     * The visual height of the board - has to be specified due to being a Canvas
+     */
+    private final double height;
+
+    /**
+     * The grid this GameBoard represents
+     */
+    final Grid grid;
+
+    /**
+     * The blocks inside the grid
+     */
+    GameBlock[][] blocks;
+
+    /**
+     * The canvas every block is drawn on
+     */
+    private Canvas canvas;
+
+    /**
+     * The sprites blocks are drawn from, for the size of block on this board
+     */
+    private BlockSprites sprites;
+
+    /**
+     * The blocks which need drawing again
+     */
+    private CellSet dirty;
+
+    /**
+     * Whether changes are being collected to be drawn together, rather than drawn as they happen
+     */
+    private boolean batching = false;
+
+    /**
+     * Runs the fades and falls of every block on this board
+     */
+    private BlockAnimations animations;
+
+    /**
+     * The block showing the centre dot, or null if there is none
+     */
+    private GameBlock centreBlock;
+
+    /**
+     * The listener to call when a specific block is clicked
+     */
+    private BlockClickedListener blockClickedListener;
+
+    /**
+     * The listener to check when right click is clicked
+     */
+    private RightClickListener rightClickListener;
+
+
+    /**
+     * Create a new GameBoard, based off a given grid, with a visual width and height.
+     *
+     * @param grid   linked grid
+     * @param width  the visual width
+     * @param height the visual height
+     */
+    public GameBoard(Grid grid, double width, double height) {
+        this.cols = grid.getCols();
+        this.rows = grid.getRows();
+        this.width = width;
+        this.height = height;
+        this.grid = grid;
+
+        //Build the GameBoard
+        build();
+    }
+
+    /**
+     * Create a new GameBoard with its own internal grid, specifying the number of columns and rows, along with the
+     * visual width and height.
+     *
+     * @param cols   number of columns for internal grid
+     * @param rows   number of rows for internal grid
+     * @param width  the visual width
+     * @param height the visual height
+     */
+    public GameBoard(int cols, int rows, double width, double height) {
+        this.cols = cols;
+        this.rows = rows;
+        this.width = width;
+        this.height = height;
+        this.grid = new Grid(cols, rows);
+
+        //Build the GameBoard
+        build();
+    }
+
+    /**
+     * Get a specific block from the GameBoard, specified by it's row and column
+     *
+     * @param x column
+     * @param y row
+     * @return game block at the given column and row
+     */
+    public GameBlock getBlock(int x, int y) {
+        return blocks[x][y];
+    }
+
+    /**
+     * Build the GameBoard by creating a block at every x and y column and row
+     */
+    protected void build() {
+        logger.info("Building grid: {} x {}", cols, rows);
+
+        setMaxWidth(width);
+        setMaxHeight(height);
+
+        canvas = new Canvas(width, height);
+        sprites = BlockSprites.forSize(width / cols, height / rows);
+        animations = new BlockAnimations(this, cols, rows, height / rows);
+        getChildren().add(canvas);
+        dirty = new CellSet(cols, rows);
+
+        blocks = new GameBlock[cols][rows];
+
+        beginRepaint();
+        for (var y = 0; y < rows; y++) {
+            for (var x = 0; x < cols; x++) {
+                createBlock(x, y);
+                dirty.add(x, y);
+            }
+        }
+        endRepaint();
+
+        //Add a mouse click handler to the canvas to trigger GameBoard blockClicked method and rightClicked method on
+        //the block under the mouse
+        canvas.setOnMouseClicked((e) -> {
+            GameBlock block = blockAt(e.getX(), e.getY());
+            if (e.getButton() == MouseButton.PRIMARY) {
+                blockClicked(e, block);
+            } else {
+                rightClicked(e, block);
+            }
+        });
+
+        //Repaint blocks when the corresponding value in the Grid changes, all together once the changes are made
+        grid.setGridListener((changedGrid, changedBlocks) -> {
+            beginRepaint();
+            int width = changedBlocks.getCols();
+            for (int cell = changedBlocks.nextCell(0); cell >= 0; cell = changedBlocks.nextCell(cell + 1)) {
+                int x = cell % width;
+                int y = cell / width;
+                blocks[x][y].setValue(changedGrid.get(x, y));
+            }
+            endRepaint();
+        });
+    }
+
+    /**
+     * Create a block at the given x and y position in the GameBoard
+     *
+     * @param x column
+     * @param y row
+     */
+    protected void createBlock(int x, int y) {
+        var blockWidth = width / cols;
+        var blockHeight = height / rows;
+
+        //Create a new GameBlock UI component
+        GameBlock block = new GameBlock(this, x, y, blockWidth, blockHeight);
+
+        //Add to our block directory
+        blocks[x][y] = block;
+
+        //Start the GameBlock component with the corresponding value in the Grid
+        block.setValue(grid.get(x, y));
+    }
+
+    /**
+     * Find the block under a point on the board
+     *
+     * @param pointX x coordinate on the board
+     * @param pointY y coordinate on the board
+     * @return the block at that point, or the nearest one if the point is on the edge
+     */
+    private GameBlock blockAt(double pointX, double pointY) {
+        int x = Math.min(Math.max((int) (pointX * cols / width), 0), cols - 1);
+        int y = Math.min(Math.max((int) (pointY * rows / height), 0), rows - 1);
+        return blocks[x][y];
+    }
+
+    /**
+     * Start collecting blocks to repaint, to be drawn together by endRepaint
+     */
+    void beginRepaint() {
+        batching = true;
+    }
+
+    /**
+     * Draw every block collected since beginRepaint
+     */
+    void endRepaint() {
+        batching = false;
+        paintDirty();
+    }
+
+    /**
+     * Draw a block again, straight away unless changes are being collected to draw together
+     *
+     * @param x column
+     * @param y row
+     */
+    void repaint(int x, int y) {
+        dirty.add(x, y);
+        if (!batching) {
+            paintDirty();
+        }
+    }
+
+    /**
+     * Draw part of a column of blocks again, such as the blocks a falling block is passing
+     *
+     * @param x column
+     * @param fromY first row
+     * @param toY last row
+     */
+    void repaintColumn(int x, int fromY, int toY) {
+        for (int y = Math.max(fromY, 0); y <= Math.min(toY, rows - 1); y++) {
+            dirty.add(x, y);
+        }
+        if (!batching) {
+            paintDirty();
+        }
+    }
+
+    /**
+     * Draw every dirty block into its square of the canvas, then any falling blocks on top
+     */
+    private void paintDirty() {
+        if (dirty.isEmpty()) return;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        for (int cell = dirty.nextCell(0); cell >= 0; cell = dirty.nextCell(cell + 1)) {
+            int x = cell % cols;
+            int y = cell / cols;
+            blocks[x][y].draw(gc, sprites, animations.getFade(x, y), animations.isFalling(x, y));
+        }
+        dirty.clear();
+        animations.drawFalling(gc, sprites, blocks);
+    }
+
+    /**
+     * Get the animations of the blocks on this board
+     *
+     * @return the animations
+     */
+    BlockAnimations getAnimations() {
+        return animations;
+    }
+
+    /**
+     * Set the listener to handle an event when a block is clicked
+     *
+     * @param listener listener to add
+     */
+    public void setOnBlockClick(BlockClickedListener listener) {
+        this.blockClickedListener = listener;
+    }
+
+    /**
+     * Triggered when a block is clicked. Call the attached listener.
+     *
+     * @param event mouse event
+     * @param block block clicked on
+     */
+    private void blockClicked(MouseEvent event, GameBlock block) {
+        logger.info("Block clicked: {}", block);
+
+        if (blockClickedListener != null) {
+            blockClickedListener.blockClicked(block);
+        }
+    }
+
+    /**
+     * Sets the listener for right-click events on this component
+     *
+     * @param rightClickedListener The listener for right-click events
+     */
+    public void setOnRightClick(RightClickListener rightClickedListener) {
+        this.rightClickListener = rightClickListener;
+    }
+
+    /**
+     * Handles the right-click event on a game block.
+     *
+     * @param event The MouseEvent associated with the right-click event
+     * @param block The GameBlock that was right-clicked
+     */
+    private void rightClicked(MouseEvent event, GameBlock block) {
+        logger.info("Block Right clicked: {}", block);
+
+        if (rightClickListener != null) {
+            rightClickListener.rightClick(block);
+        }
+    }
+
+    /**
+     * Sets the game piece to be displayed in the middle of the grid
+     *
+     * @param gamePiece The game piece to be displayed
+     */
+    public void pieceToDisplay(GamePiece gamePiece) {
+        int x = displayX(gamePiece);
+        int y = displayY(gamePiece);
+        this.grid.transaction(() -> {
+            this.grid.clearGrid();
+            this.grid.playPiece(gamePiece, x, y);
+        });
+    }
+
+    /**
+     * Show the grid of a game snapshot, updating only the blocks which have changed
+     *
+     * @param snapshot the game state to show
+     */
+    public void showSnapshot(GameSnapshot snapshot) {
+        this.grid.restore(snapshot);
+    }
+
+    /**
+     * Get the column a piece is played at to show it in the middle of the grid
+     *
+     * @param gamePiece the piece
+     * @return column
+     */
+    private int displayX(GamePiece gamePiece) {
+        return (grid.getCols() - gamePiece.getSize()) / 2 + gamePiece.getCentre();
+    }
+
+    /**
+     * Get the row a piece is played at to show it in the middle of the grid
+     *
+     * @param gamePiece the piece
+     * @return row
+     */
+    private int displayY(GamePiece gamePiece) {
+        return (grid.getRows() - gamePiece.getSize()) / 2 + gamePiece.getCentre();
+    }
+
+    /**
+     * Paints the centre dot on the block a piece shown by pieceToDisplay is placed by, moving it from wherever it was
+     *
+     * @param gamePiece the piece being shown
+     */
+    public void paintCentre(GamePiece gamePiece) {
+        GameBlock block = this.getBlock(displayX(gamePiece), displayY(gamePiece));
+        if (block == centreBlock) return;
+        if (centreBlock != null) {
+            centreBlock.resetCentre();
+        }
+        centreBlock = block;
+        block.center();
+    }
+
+    /**
+     * Fades out the game blocks in the specified set
+     *
+     * @param clearedBlocks The set of game blocks to fade out
+     */
+    public void fadeOut(CellSet clearedBlocks) {
+        int width = clearedBlocks.getCols();
+        for (int cell = clearedBlocks.nextCell(0); cell >= 0; cell = clearedBlocks.nextCell(cell + 1)) {
+            animations.fadeOut(cell % width, cell / width);
+        }
+    }
+
+    /**
+     * Animates blocks falling to where they are now from where they started
+     *
+     * @param moves The blocks which fell
+     */
+    public void animateFall(MoveList moves) {
+        for (int i = 0; i < moves.size(); i++) {
+            animations.fall(moves.getToX(i), moves.getToY(i), moves.getToY(i) - moves.getFromY(i));
+        }
+    }
+
+    /**
+     * Retrieves the grid associated with this object
+     *
+     * @return The grid object
+     */
+    public Grid getGrid() {
+        return grid;
+    }
+}
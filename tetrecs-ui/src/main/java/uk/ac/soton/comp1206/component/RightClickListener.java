@@ -1,7 +1,4 @@
-package uk.ac.soton.comp1206.event;
-
-import uk.ac.soton.comp1206.component.GameBlock;
-import uk.ac.soton.comp1206.component.GameBoard;
+package uk.ac.soton.comp1206.component;
 
 /**
  * Listener interface for receiving right-click events on game blocks
@@ -1,4 +1,4 @@
-package uk.ac.soton.comp1206.event;
+package uk.ac.soton.comp1206.network;
 
 /**
  * The Communications Listener is used for listening to messages received by the communicator.
@@ -1,13 +1,12 @@
-package uk.ac.soton.comp1206.game;
+package uk.ac.soton.comp1206.network;
 
-import javafx.application.Platform;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import uk.ac.soton.comp1206.network.Communicator;
+import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.GamePiece;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
 import java.util.LinkedList;
-import java.util.concurrent.Executors;
 
 /**
  * The MultiplayerGame extends the Game class, and implements communicator to allow for multiplayer to function.
@@ -41,6 +40,8 @@ public class MultiplayerGame extends Game{
     public MultiplayerGame(int cols, int rows, GameWindow gameWindow) {
         super(cols, rows);
         this.gameWindow = gameWindow;
+        //Turns cannot be taken back against other players
+        setHistoryLimit(0);
     }
 
     /**
@@ -52,7 +53,9 @@ public class MultiplayerGame extends Game{
             currentPiece = gamePiece; //First Piece
         } else if(followingPiece == null){
             followingPiece = gamePiece; //Second Piece
-            nextPieceListener.nextPiece(currentPiece, followingPiece);
+            if(nextPieceListener != null) {
+                nextPieceListener.nextPiece(currentPiece, followingPiece);
+            }
         } else {
             queue.add(gamePiece);//Creates Queue
         }
@@ -65,24 +68,29 @@ public class MultiplayerGame extends Game{
     public void nextPiece() {
         currentPiece = followingPiece;
         followingPiece = queue.remove();
-        nextPieceListener.nextPiece(currentPiece, followingPiece);
+        if(nextPieceListener != null) {
+            nextPieceListener.nextPiece(currentPiece, followingPiece);
+        }
         communicator.send("PIECE");
     }
 
     /**
      * Handles what should happen once a piece has been played, and sends a current description of the game board to the
-     * server
+     * server, as "BOARD" followed by the value of every block, column by column, then the Zobrist hash of those
+     * blocks in hex. The hash covers only the blocks sent, so whoever receives the board can check their copy of it
+     * matches.
      */
     @Override
     public void afterPiece() {
         super.afterPiece();
-        String board = "BOARD ";
+        StringBuilder board = new StringBuilder("BOARD ");
         for (int x = 0; x < this.getCols(); x++) {
             for(int y = 0; y < this.getRows(); y++) {
-                board = board + grid.get(x,y) + " ";
+                board.append(grid.get(x,y)).append(' ');
             }
         }
-        communicator.send(board);
+        board.append(Long.toHexString(grid.getHash()));
+        communicator.send(board.toString());
     }
 
     /**
@@ -90,10 +98,9 @@ public class MultiplayerGame extends Game{
      */
     @Override
     public void initialiseGame() {
-        timer = Executors.newSingleThreadScheduledExecutor();
         communicator = gameWindow.getCommunicator();
         //Listens for messages from communicator and handles the command
-        communicator.addListener(message -> Platform.runLater(() -> listen(message.trim())));
+        communicator.addListener(message -> dispatcher.execute(() -> listen(message.trim())));
         for(int x = 0; x < 5; x++) {
             communicator.send("PIECE");
         }
@@ -108,7 +115,7 @@ public class MultiplayerGame extends Game{
     @Override
     public void score(int lines, int blocks) {
         super.score(lines, blocks);
-        communicator.send("SCORE " + this.scoreProperty().get());
+        communicator.send("SCORE " + this.getScore());
     }
 
     /**
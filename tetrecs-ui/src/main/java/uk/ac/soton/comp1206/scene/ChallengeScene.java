@@ -3,6 +3,7 @@ package uk.ac.soton.comp1206.scene;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.Pos;
@@ -20,11 +21,17 @@ import javafx.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.component.GameBlock;
-import uk.ac.soton.comp1206.component.GameBlockCoordinate;
 import uk.ac.soton.comp1206.component.GameBoard;
 import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.CellSet;
+import uk.ac.soton.comp1206.game.GameActor;
 import uk.ac.soton.comp1206.game.GamePiece;
-import uk.ac.soton.comp1206.game.MultiplayerGame;
+import uk.ac.soton.comp1206.game.GameSnapshot;
+import uk.ac.soton.comp1206.game.MoveList;
+import uk.ac.soton.comp1206.game.PieceSet;
+import uk.ac.soton.comp1206.game.RandomPieceSource;
+import uk.ac.soton.comp1206.network.MultiplayerGame;
+import uk.ac.soton.comp1206.ui.GameProperties;
 import uk.ac.soton.comp1206.ui.Multimedia;
 import uk.ac.soton.comp1206.ui.GamePane;
 import uk.ac.soton.comp1206.ui.GameWindow;
@@ -34,7 +41,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.Scanner;
-import java.util.Set;
+import java.util.SplittableRandom;
 
 /**
  * The Single Player challenge scene. Holds the UI for the single player challenge mode in the game.
@@ -43,8 +50,40 @@ public class ChallengeScene extends BaseScene {
 
     private static final Logger logger = LogManager.getLogger(ChallengeScene.class);
 
+    /**
+     * The width of the danger indicator beside the timer
+     */
+    private static final int DANGER_WIDTH = 100;
+
     protected Game game;
 
+    /**
+     * The pieces currently shown in the previews
+     */
+    protected GamePiece shownPiece;
+    protected GamePiece shownFollowingPiece;
+
+    /**
+     * A saved game to resume instead of starting a new one
+     */
+    protected GameSnapshot savedGame;
+
+    /**
+     * Whether snapshots are still being autosaved, and the piece position of the last one saved
+     */
+    protected boolean autosaving = true;
+    protected int savedPieceIndex = -1;
+
+    /**
+     * The actor which owns the game. Everything the scene does to the game goes through it.
+     */
+    protected GameActor actor;
+
+    /**
+     * The score, level, lives and multiplier of the game as properties for display
+     */
+    protected GameProperties gameProperties;
+
     /**
      * Multimedia class is used to output both sounds and background music
      */
@@ -85,6 +124,11 @@ public class ChallengeScene extends BaseScene {
      */
     protected Rectangle timer;
 
+    /**
+     * The danger indicator UI element, filling up and turning red as the board fills up
+     */
+    protected Rectangle danger;
+
     /**
      * The BorderPane of the current scene
      */
@@ -108,6 +152,8 @@ public class ChallengeScene extends BaseScene {
         logger.info("Building " + this.getClass().getName());
 
         setupGame();
+        actor = new GameActor(game, Platform::runLater);
+        gameProperties = new GameProperties(actor.getSnapshot());
 
         this.scene = gameWindow.getScene();
 
@@ -122,7 +168,7 @@ public class ChallengeScene extends BaseScene {
         //Score UI element
         var score = new Text("Score: ");
         var scoreValue = new Text("0");
-        scoreValue.textProperty().bind(game.scoreProperty().asString());
+        scoreValue.textProperty().bind(gameProperties.scoreProperty().asString());
         var scoreBox = new HBox(score, scoreValue);
         score.getStyleClass().add("heading");
         scoreValue.getStyleClass().add("heading");
@@ -130,7 +176,7 @@ public class ChallengeScene extends BaseScene {
         //Level UI element
         var level = new Text("Level: ");
         var levelValue = new Text("1");
-        levelValue.textProperty().bind(game.levelProperty().asString());
+        levelValue.textProperty().bind(gameProperties.levelProperty().asString());
         var levelBox = new HBox(level, levelValue);
         level.getStyleClass().add("heading");
         levelValue.getStyleClass().add("heading");
@@ -138,7 +184,7 @@ public class ChallengeScene extends BaseScene {
         //Multiplier UI element
         var multiplier = new Text("Multiplier: ");
         var multiplierValue = new Text("1");
-        multiplierValue.textProperty().bind(game.multiplierProperty().asString());
+        multiplierValue.textProperty().bind(gameProperties.multiplierProperty().asString());
         var multiplierBox = new HBox(multiplier, multiplierValue);
         multiplier.getStyleClass().add("heading");
         multiplierValue.getStyleClass().add("heading");
@@ -146,7 +192,7 @@ public class ChallengeScene extends BaseScene {
         //Lives UI element
         var lives = new Text("Lives: ");
         var livesValue = new Text("3");
-        livesValue.textProperty().bind(game.livesProperty().asString());
+        livesValue.textProperty().bind(gameProperties.livesProperty().asString());
         var livesBox = new HBox(lives, livesValue);
         lives.getStyleClass().add("heading");
         livesValue.getStyleClass().add("heading");
@@ -170,16 +216,16 @@ public class ChallengeScene extends BaseScene {
         highScoreBox.setTranslateY(-30);
         highScoreBox.setTranslateX(22.5);
 
-        //Current Piece preview
-        pieceBoard = new GameBoard(3, 3, 100, 100);
+        //Current Piece preview, big enough for the largest piece in the game
+        int pieceSize = game.getPieceSet().getMaxSize();
+        pieceBoard = new GameBoard(pieceSize, pieceSize, 100, 100);
         pieceBoard.setAlignment(Pos.CENTER);
 
         //Following Piece preview
-        followingPieceBoard = new GameBoard(3, 3, 75, 75);
+        followingPieceBoard = new GameBoard(pieceSize, pieceSize, 75, 75);
         followingPieceBoard.setAlignment(Pos.CENTER);
         pieceBoard.setTranslateY(-10);
         pieceBoard.setTranslateX(12.5);
-        pieceBoard.paintCentre();
 
         //VBox of Pieces
         var pieces = new VBox(highScoreBox, pieceBoard, followingPieceBoard);
@@ -187,34 +233,47 @@ public class ChallengeScene extends BaseScene {
         pieces.setTranslateX(-75);
 
         //UI timer element
-        timer = new Rectangle(gameWindow.getWidth(), 10);
+        timer = new Rectangle(gameWindow.getWidth() - DANGER_WIDTH, 10);
         var timerPane = new StackPane();
         timerPane.getChildren().add(timer);
+        timerPane.setMinWidth(timer.getWidth());
+
+        //Danger indicator beside the timer, showing how close the board is to filling up
+        danger = new Rectangle(0, 10, Color.GREEN);
+        var dangerPane = new StackPane(new Rectangle(DANGER_WIDTH, 10, Color.web("#222222")), danger);
+        dangerPane.setAlignment(Pos.CENTER_LEFT);
+        danger.widthProperty().bind(gameProperties.dangerProperty().multiply(DANGER_WIDTH));
+        gameProperties.dangerProperty().addListener((observable, oldValue, newValue) ->
+                danger.setFill(Color.GREEN.interpolate(Color.RED, newValue.doubleValue())));
+        var timerBox = new HBox(timerPane, dangerPane);
 
         mainPane = new BorderPane();
         challengePane.getChildren().add(mainPane);
 
         mainPane.setRight(pieces);
-        mainPane.setTop(timerPane);
+        mainPane.setTop(timerBox);
         timerPane.setAlignment(Pos.TOP_LEFT);
 
-        board = new GameBoard(game.getGrid(), gameWindow.getWidth() / 2, gameWindow.getWidth() / 2);
+        board = new GameBoard(game.getCols(), game.getRows(), gameWindow.getWidth() / 2, gameWindow.getWidth() / 2);
         mainPane.setCenter(board);
 
         //Handle block on Gameboard grid being clicked
         board.setOnBlockClick(this::blockClicked);
 
-        //Setting Piece Listener
-        game.setNextPieceListener(this::nextPiece);
+        //Showing the state of the game each time it changes
+        actor.setSnapshotListener(this::showSnapshot);
 
         //Setting LineClearedListener
-        game.setLineClearListener(this::lineClear);
+        actor.setLineClearListener(this::lineClear);
+
+        //Setting FallListener
+        actor.setFallListener(this::blocksFell);
 
         //Setting GameLoopListener
-        game.setOnGameLoop(this::gameLoop);
+        actor.setOnGameLoop(this::gameLoop);
 
         //Setting GameEndListener
-        game.setGameEndListener(game -> {
+        actor.setGameEndListener(game -> {
             gameEnd();
             gameWindow.startScores(game);
         });
@@ -229,7 +288,19 @@ public class ChallengeScene extends BaseScene {
         followingPieceBoard.setOnBlockClick(this::swapPieces);
 
         //Adding a listener to the score property so that the highscore element can be changed
-        game.scoreProperty().addListener(this::getHighScore);
+        gameProperties.scoreProperty().addListener(this::getHighScore);
+
+        //Playing sounds when a level is gained or a life is lost
+        gameProperties.levelProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.intValue() > oldValue.intValue()) {
+                multimedia.playSound("level.wav");
+            }
+        });
+        gameProperties.livesProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.intValue() < oldValue.intValue()) {
+                multimedia.playSound("lifelose.wav");
+            }
+        });
 
     }
 
@@ -239,13 +310,15 @@ public class ChallengeScene extends BaseScene {
      * @param gameBlock the Game Block that was clocked
      */
     protected void blockClicked(GameBlock gameBlock) {
-        boolean piecePlayed = game.blockClicked(gameBlock);
-        if (piecePlayed) {
-            multimedia.playSound("place.wav");
-            game.restartLoop();
-        } else {
-            multimedia.playSound("fail.wav");
-        }
+        int x = gameBlock.getX();
+        int y = gameBlock.getY();
+        actor.ask(game -> {
+            boolean piecePlayed = game.blockClicked(x, y);
+            if (piecePlayed) {
+                game.restartLoop();
+            }
+            return piecePlayed;
+        }, piecePlayed -> multimedia.playSound(piecePlayed ? "place.wav" : "fail.wav"));
     }
 
     /**
@@ -254,8 +327,20 @@ public class ChallengeScene extends BaseScene {
     public void setupGame() {
         logger.info("Starting a new challenge");
 
-        //Start new game
-        game = new Game(5, 5);
+        //Carry on from a saved game if the last one was cut short
+        savedGame = gameWindow.takeSavedGame();
+        if (savedGame != null) {
+            logger.info("Resuming a saved challenge");
+            //Keep playing with the pieces and rules the game was saved with
+            PieceSet pieceSet = savedGame.getPieceSet();
+            game = new Game(savedGame.getCols(), savedGame.getRows(),
+                    new RandomPieceSource(new SplittableRandom().nextLong(), pieceSet.size()), pieceSet);
+            game.setGravity(savedGame.isGravity());
+        } else {
+            //Start new game, on a larger board if one was asked for
+            game = new Game(gameWindow.getBoardCols(), gameWindow.getBoardRows());
+            game.setGravity(gameWindow.isGravity());
+        }
     }
 
     /**
@@ -264,13 +349,43 @@ public class ChallengeScene extends BaseScene {
     @Override
     public void initialise() {
         logger.info("Initialising Challenge");
-        game.start();
+        if (savedGame != null) {
+            GameSnapshot saved = savedGame;
+            actor.send(game -> game.resume(saved));
+        } else {
+            actor.send(Game::start);
+        }
         this.multimedia.playBackgroundMusic("game.wav");
         //Handling keyboard inputs - setting on key pressed listener
         scene.setOnKeyPressed(this::keyboardInput);
         initialHighscore();
     }
 
+    /**
+     * Shows the latest state of the game: the board, the pieces and the stats
+     *
+     * @param snapshot the game state
+     */
+    protected void showSnapshot(GameSnapshot snapshot) {
+        board.showSnapshot(snapshot);
+        //Pieces are shared instances, so only redraw the previews when a different one is shown
+        GamePiece current = snapshot.getCurrentPiece();
+        GamePiece following = snapshot.getFollowingPiece();
+        if (current != null && following != null && (current != shownPiece || following != shownFollowingPiece)) {
+            shownPiece = current;
+            shownFollowingPiece = following;
+            nextPiece(current, following);
+        }
+        gameProperties.update(snapshot);
+
+        //Save single player games after every turn, in the background
+        if (autosaving && !(game instanceof MultiplayerGame) && !snapshot.isOver() && snapshot.getTimeLeft() >= 0
+                && current != null && snapshot.getPieceIndex() != savedPieceIndex) {
+            savedPieceIndex = snapshot.getPieceIndex();
+            gameWindow.getAutosave().save(snapshot);
+        }
+    }
+
     /**
      * changes the "PieceBoards" to display the correct current and following pieces
      *
@@ -279,6 +394,7 @@ public class ChallengeScene extends BaseScene {
      */
     protected void nextPiece(GamePiece gamePiece, GamePiece followingGamePiece) {
         pieceBoard.pieceToDisplay(gamePiece);
+        pieceBoard.paintCentre(gamePiece);
         followingPieceBoard.pieceToDisplay(followingGamePiece);
     }
 
@@ -304,10 +420,7 @@ public class ChallengeScene extends BaseScene {
      * @param rotations Number of Rotations Clockwise
      */
     protected void rotate(int rotations) {
-        for (int x = 0; x < rotations; x++) {
-            game.rotateCurrentPiece();
-        }
-        pieceBoard.pieceToDisplay(game.getCurrentPiece());
+        actor.send(game -> game.rotateCurrentPiece(rotations));
         multimedia.playSound("rotate.wav");
     }
 
@@ -324,12 +437,36 @@ public class ChallengeScene extends BaseScene {
      * Swaps the current and following pieces
      */
     protected void swapPieces() {
-        game.swapCurrentPiece();
-        pieceBoard.pieceToDisplay(game.getCurrentPiece());
-        followingPieceBoard.pieceToDisplay(game.getFollowingPiece());
+        actor.send(Game::swapCurrentPiece);
         multimedia.playSound("rotate.wav");
     }
 
+    /**
+     * Undoes the last turn and gives the player a full turn to play again
+     */
+    protected void undo() {
+        actor.ask(game -> {
+            boolean undone = game.undo();
+            if (undone) {
+                game.restartLoop();
+            }
+            return undone;
+        }, undone -> multimedia.playSound(undone ? "rotate.wav" : "fail.wav"));
+    }
+
+    /**
+     * Redoes the last undone turn
+     */
+    protected void redo() {
+        actor.ask(game -> {
+            boolean redone = game.redo();
+            if (redone) {
+                game.restartLoop();
+            }
+            return redone;
+        }, redone -> multimedia.playSound(redone ? "rotate.wav" : "fail.wav"));
+    }
+
     /**
      * Handles keyboard input
      *
@@ -345,6 +482,12 @@ public class ChallengeScene extends BaseScene {
                 gameWindow.startMenu();
             }
             logger.info("Escape Pressed");
+            //Undoes the last turn
+        } else if (keyEvent.isShortcutDown() && keyEvent.getCode() == KeyCode.Z) {
+            undo();
+            //Redoes the last undone turn
+        } else if (keyEvent.isShortcutDown() && keyEvent.getCode() == KeyCode.Y) {
+            redo();
             //Rotates the current piece left
         } else if (keyEvent.getCode() == KeyCode.Q || keyEvent.getCode() == KeyCode.Z || keyEvent.getCode() == KeyCode.OPEN_BRACKET) {
             rotateLeft();
@@ -367,7 +510,7 @@ public class ChallengeScene extends BaseScene {
             }
             //Moves cursor right
         } else if (keyEvent.getCode() == KeyCode.D || keyEvent.getCode() == KeyCode.RIGHT) {
-            if (blockX < 4) {
+            if (blockX < game.getCols() - 1) {
                 blockX += 1;
                 moved = true;
             } else {
@@ -375,7 +518,7 @@ public class ChallengeScene extends BaseScene {
             }
             //Moves cursor down
         } else if (keyEvent.getCode() == KeyCode.S || keyEvent.getCode() == KeyCode.DOWN) {
-            if (blockY < 4) {
+            if (blockY < game.getRows() - 1) {
                 blockY += 1;
                 moved = true;
             } else {
@@ -399,13 +542,22 @@ public class ChallengeScene extends BaseScene {
     }
 
     /**
-     * When a line has been cleared, an animation is played on a set of given GameBlockCoordinates
+     * When a line has been cleared, an animation is played on the given set of blocks
      *
-     * @param gameBlockCoordinates A Set of Coordinates for a grid
+     * @param clearedBlocks The set of blocks that were cleared
      */
-    protected void lineClear(Set<GameBlockCoordinate> gameBlockCoordinates) {
+    protected void lineClear(CellSet clearedBlocks) {
         multimedia.playSound("clear.wav");
-        board.fadeOut(gameBlockCoordinates);
+        board.fadeOut(clearedBlocks);
+    }
+
+    /**
+     * When blocks have fallen after a clear, each one is animated falling into its new place
+     *
+     * @param moves The blocks that fell
+     */
+    protected void blocksFell(MoveList moves) {
+        board.animateFall(moves);
     }
 
     /**
@@ -414,7 +566,7 @@ public class ChallengeScene extends BaseScene {
      * @param delay Representing how long the timer will last.
      */
     protected void gameLoop(int delay) {
-        timer.widthProperty().set(gameWindow.getWidth());
+        timer.widthProperty().set(gameWindow.getWidth() - DANGER_WIDTH);
         Timeline timerBar = createTimeLine(delay);
         timerBar.play();
     }
@@ -423,11 +575,14 @@ public class ChallengeScene extends BaseScene {
      * Ends the game
      */
     protected void gameEnd() {
+        gameProperties.stop();
         //Ends game only if the game is a challenge scene game
         if (!(game instanceof MultiplayerGame)) {
             logger.info("Game Over");
             timer.setVisible(false);
-            game.endGame();
+            actor.send(Game::endGame);
+            autosaving = false;
+            gameWindow.getAutosave().clear();
             multimedia.stopBackground();
             multimedia.playSound("transition.wav");
         }
@@ -487,14 +642,14 @@ public class ChallengeScene extends BaseScene {
                 scores.sort((a, b) -> b.getValue() - a.getValue());
                 highScore = scores.get(0).getValue();
             } else {
-                highScore = game.scoreProperty().get();
+                highScore = gameProperties.scoreProperty().get();
             }
         } catch (Exception e) {
             e.printStackTrace();
             logger.error("Error when finding highscore");
         }
-        if (game.scoreProperty().get() > highScore) {
-            highScoreValue.set(game.scoreProperty().get());
+        if (gameProperties.scoreProperty().get() > highScore) {
+            highScoreValue.set(gameProperties.scoreProperty().get());
         } else {
             highScoreValue.set(highScore);
         }
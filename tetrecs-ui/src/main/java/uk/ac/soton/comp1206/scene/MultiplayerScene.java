@@ -18,8 +18,9 @@ import javafx.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.component.GameBoard;
+import uk.ac.soton.comp1206.game.Game;
 import uk.ac.soton.comp1206.component.ScoresList;
-import uk.ac.soton.comp1206.game.MultiplayerGame;
+import uk.ac.soton.comp1206.network.MultiplayerGame;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.ui.GameWindow;
 
@@ -128,7 +129,7 @@ public class MultiplayerScene extends ChallengeScene{
                 textField.clear();
             } else {
                 multimedia.stopBackground();
-                game.endGame();
+                actor.send(Game::endGame);
                 multimedia.playSound("transition.wav");
                 gameEnd();
                 gameWindow.startMenu();
@@ -215,7 +216,7 @@ public class MultiplayerScene extends ChallengeScene{
         mainPane.setBottom(chat);
 
         //Setting GameEndListener
-        game.setGameEndListener(game -> {
+        actor.setGameEndListener(game -> {
             gameEnd();
             gameWindow.loadScene(new ScoresScene(gameWindow, game, this.multiplayerScores));
         });
@@ -283,7 +284,8 @@ public class MultiplayerScene extends ChallengeScene{
     }
 
     /**
-     * Updates GameBoards when a message is received
+     * Updates GameBoards when a message is received. The board is the player's name, a colon, the value of every block
+     * column by column, and then the hash of the blocks in hex, which is checked against the updated board.
      * @param board String representation of a GameBoard
      */
     public void updatePlayerBoard(String board) {
@@ -291,12 +293,21 @@ public class MultiplayerScene extends ChallengeScene{
         String[] values = board.split(":")[1].split(" ");
         if(players.contains(player)) {
             GameBoard gameBoard = playerToGameboard.get(player);
-            int i = 0;
-            for (int x = 0; x < this.game.getCols(); x++) {
-                for (int y = 0; y < this.game.getRows(); y++) {
-                    gameBoard.getGrid().set(x, y, Integer.parseInt(values[i]));
-                    i++;
+            int cols = this.game.getCols();
+            int rows = this.game.getRows();
+            //Change every block together, so the board is told about the changes and repainted once
+            gameBoard.getGrid().transaction(() -> {
+                int i = 0;
+                for (int x = 0; x < cols; x++) {
+                    for (int y = 0; y < rows; y++) {
+                        gameBoard.getGrid().set(x, y, Integer.parseInt(values[i]));
+                        i++;
+                    }
                 }
+            });
+            int i = cols * rows;
+            if (i < values.length && Long.parseUnsignedLong(values[i], 16) != gameBoard.getGrid().getHash()) {
+                logger.warn("Board for {} does not match its hash", player);
             }
         }
     }
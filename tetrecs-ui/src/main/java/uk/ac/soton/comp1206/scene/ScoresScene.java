@@ -89,7 +89,7 @@ public class ScoresScene extends BaseScene {
     public ScoresScene(GameWindow gameWindow, Game game) {
         super(gameWindow);
         gameState = game;
-        score = game.scoreProperty().get(); // sets the score that the player achieved
+        score = game.getScore(); // sets the score that the player achieved
         this.localScoreList.set(FXCollections.observableArrayList(new ArrayList<Pair<String, Integer>>()));
         this.remoteScoresList.set(FXCollections.observableArrayList(new ArrayList<Pair<String, Integer>>()));
         logger.info("Creating Scores Scene");
@@ -106,7 +106,7 @@ public class ScoresScene extends BaseScene {
     public ScoresScene(GameWindow gameWindow, Game game, SimpleListProperty<Pair<String, Integer>> scores) {
         super(gameWindow);
         gameState = game;
-        score = game.scoreProperty().get(); //sets the score that the player achieved
+        score = game.getScore(); //sets the score that the player achieved
         //Sets the localscorelist to the scores in multiplayer
         this.localScoreList.set(FXCollections.observableArrayList(new ArrayList<Pair<String, Integer>>()));
         this.remoteScoresList.set(FXCollections.observableArrayList(new ArrayList<Pair<String, Integer>>()));
@@ -0,0 +1,129 @@
+package uk.ac.soton.comp1206.ui;
+
+import javafx.application.Platform;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import uk.ac.soton.comp1206.game.GameSnapshot;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * GameProperties adapts a Game for display. It exposes the score, level, lives and multiplier of the game as
+ * IntegerProperties, and how close the board is to filling up as a DoubleProperty, which can be bound to UI elements,
+ * and is kept up to date from the snapshots of the game.
+ *
+ * Snapshots are only published to the properties once per JavaFX pulse, using the latest one, so a burst of changes
+ * within a turn updates the UI once. A publish is only queued on the JavaFX thread when a snapshot arrives with none
+ * already waiting, so nothing runs while the game is idle.
+ */
+public class GameProperties {
+
+    /**
+     * The latest snapshot, waiting to be published, or null if a publish is not queued
+     */
+    private final AtomicReference<GameSnapshot> pending = new AtomicReference<>();
+
+    /**
+     * Whether publishing has stopped
+     */
+    private volatile boolean stopped = false;
+
+    /**
+     * Current Score of the player
+     */
+    private final IntegerProperty score = new SimpleIntegerProperty(0);
+
+    /**
+     * Current Level of the game
+     */
+    private final IntegerProperty level = new SimpleIntegerProperty(0);
+
+    /**
+     * Current Lives left of the player
+     */
+    private final IntegerProperty lives = new SimpleIntegerProperty(3);
+
+    /**
+     * Current Game Multiplier
+     */
+    private final IntegerProperty multiplier = new SimpleIntegerProperty(1);
+
+    /**
+     * How close the board is to filling up, from 0 to 1
+     */
+    private final DoubleProperty danger = new SimpleDoubleProperty(0);
+
+    /**
+     * Create the properties for a game, starting from the given snapshot. Must be created on the JavaFX thread.
+     *
+     * @param snapshot the starting state of the game
+     */
+    public GameProperties(GameSnapshot snapshot) {
+        set(snapshot);
+    }
+
+    /**
+     * Give the properties the latest state of the game, to be published on the next pulse. Can be called from any
+     * thread.
+     *
+     * @param snapshot the latest state of the game
+     */
+    public void update(GameSnapshot snapshot) {
+        //Only the first snapshot since the last publish queues one, later ones replace it while it waits
+        if (pending.getAndSet(snapshot) == null) {
+            Platform.runLater(this::publish);
+        }
+    }
+
+    /**
+     * Publish anything still waiting and stop publishing. Must be called on the JavaFX thread.
+     */
+    public void stop() {
+        publish();
+        stopped = true;
+    }
+
+    /**
+     * Copy the stats of the latest snapshot into the properties, if one is waiting
+     */
+    private void publish() {
+        GameSnapshot snapshot = pending.getAndSet(null);
+        if (snapshot == null || stopped) return;
+        set(snapshot);
+    }
+
+    /**
+     * Copy the stats of a snapshot into the properties
+     *
+     * @param snapshot the state of the game
+     */
+    private void set(GameSnapshot snapshot) {
+        score.set(snapshot.getScore());
+        level.set(snapshot.getLevel());
+        lives.set(snapshot.getLives());
+        multiplier.set(snapshot.getMultiplier());
+        danger.set(snapshot.getDanger());
+    }
+
+    public IntegerProperty scoreProperty() {
+        return score;
+    }
+
+    public IntegerProperty levelProperty() {
+        return level;
+    }
+
+    public IntegerProperty livesProperty() {
+        return lives;
+    }
+
+    public IntegerProperty multiplierProperty() {
+        return multiplier;
+    }
+
+    public DoubleProperty dangerProperty() {
+        return danger;
+    }
+}
@@ -9,10 +9,14 @@ import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import uk.ac.soton.comp1206.App;
+import uk.ac.soton.comp1206.game.Autosave;
 import uk.ac.soton.comp1206.game.Game;
+import uk.ac.soton.comp1206.game.GameSnapshot;
 import uk.ac.soton.comp1206.network.Communicator;
 import uk.ac.soton.comp1206.scene.*;
 
+import java.nio.file.Path;
+
 /**
  * The GameWindow is the single window for the game where everything takes place. To move between screens in the game,
  * we simply change the scene.
@@ -34,6 +38,31 @@ public class GameWindow {
 
     final Communicator communicator;
 
+    /**
+     * The number of columns of the single player board
+     */
+    private int boardCols = 5;
+
+    /**
+     * The number of rows of the single player board
+     */
+    private int boardRows = 5;
+
+    /**
+     * Whether single player games are played with gravity
+     */
+    private boolean gravity = false;
+
+    /**
+     * Keeps the single player game saved in case the client stops
+     */
+    private final Autosave autosave = new Autosave(Path.of("autosave.bin"));
+
+    /**
+     * A single player game saved by an earlier run, waiting to be resumed
+     */
+    private GameSnapshot savedGame;
+
     /**
      * Create a new GameWindow attached to the given stage with the specified width and height
      * @param stage stage
@@ -58,6 +87,9 @@ public class GameWindow {
         //Setup communicator
         communicator = new Communicator("ws://ofb-labs.soton.ac.uk:9700");
 
+        //Pick up any game left over from a run that stopped part way through
+        savedGame = autosave.load();
+
         //Go to menu
         startMenu();
 
@@ -179,6 +211,66 @@ public class GameWindow {
         return this.height;
     }
 
+    /**
+     * Set the size of the board used for single player games
+     * @param cols number of columns
+     * @param rows number of rows
+     */
+    public void setBoardSize(int cols, int rows) {
+        this.boardCols = cols;
+        this.boardRows = rows;
+    }
+
+    /**
+     * Get the number of columns of the single player board
+     * @return columns
+     */
+    public int getBoardCols() {
+        return boardCols;
+    }
+
+    /**
+     * Get the number of rows of the single player board
+     * @return rows
+     */
+    public int getBoardRows() {
+        return boardRows;
+    }
+
+    /**
+     * Set whether single player games are played with gravity
+     * @param gravity true for gravity
+     */
+    public void setGravity(boolean gravity) {
+        this.gravity = gravity;
+    }
+
+    /**
+     * Whether single player games are played with gravity
+     * @return true for gravity
+     */
+    public boolean isGravity() {
+        return gravity;
+    }
+
+    /**
+     * Get the autosave for single player games
+     * @return autosave
+     */
+    public Autosave getAutosave() {
+        return autosave;
+    }
+
+    /**
+     * Take the saved game waiting to be resumed, if there is one. It is only given out once.
+     * @return the saved game, or null
+     */
+    public GameSnapshot takeSavedGame() {
+        GameSnapshot saved = savedGame;
+        savedGame = null;
+        return saved;
+    }
+
     /**
      * Get the communicator
      * @return communicator